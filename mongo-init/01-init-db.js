@@ -7,15 +7,24 @@ db = db.getSiblingDB('springdemo');
 // Create collections
 db.createCollection('users');
 db.createCollection('calculations');
+db.createCollection('calculation_rollups');
 db.createCollection('audit_logs');
+db.createCollection('refresh_tokens');
+db.createCollection('email_outbox');
 
 // Create indexes for better performance
 db.users.createIndex({ "email": 1 }, { unique: true });
 db.users.createIndex({ "username": 1 }, { unique: true });
-db.calculations.createIndex({ "userId": 1 });
+db.calculations.createIndex({ "userId": 1, "createdAt": -1, "_id": -1 });
 db.calculations.createIndex({ "createdAt": -1 });
+db.calculation_rollups.createIndex({ "minute": 1 });
 db.audit_logs.createIndex({ "timestamp": -1 });
 db.audit_logs.createIndex({ "userId": 1 });
+db.refresh_tokens.createIndex({ "tokenHash": 1 }, { unique: true });
+db.refresh_tokens.createIndex({ "userId": 1 });
+db.refresh_tokens.createIndex({ "expiresAt": 1 }, { expireAfterSeconds: 0 });
+db.email_outbox.createIndex({ "status": 1, "nextAttemptAt": 1 });
+db.email_outbox.createIndex({ "claimId": 1 }, { sparse: true });
 
 // Insert sample data (optional)
 db.users.insertOne({
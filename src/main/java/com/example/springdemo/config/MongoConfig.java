@@ -1,32 +1,82 @@
 package com.example.springdemo.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.stereotype.Component;
 
+/**
+ * Creates the indexes the application relies on at startup, mirroring mongo-init/01-init-db.js.
+ *
+ * Each index is ensured on its own, so one failure does not skip the rest. The unique username and
+ * email indexes are the source of truth behind the signup existence filter; startup fails if they
+ * cannot be created. Any other index that fails is logged and the application starts without it.
+ */
 @Component
 public class MongoConfig implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(MongoConfig.class);
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
     @Override
-    public void run(String... args) throws Exception {
+    public void run(String... args) {
         // Create indexes manually to avoid conflicts
-        try {
-            // Create unique index for username
-            mongoTemplate.indexOps("users")
-                .ensureIndex(new Index().on("username", org.springframework.data.domain.Sort.Direction.ASC).unique());
+        // Unique username and email: required
+        ensureRequired("users", new Index().on("username", Sort.Direction.ASC).unique());
+        ensureRequired("users", new Index().on("email", Sort.Direction.ASC).unique());
+
+        // Refresh sessions are looked up by token hash, revoked by user and expired by MongoDB
+        ensure("refresh_tokens", new Index().on("tokenHash", Sort.Direction.ASC).unique());
+        ensure("refresh_tokens", new Index().on("userId", Sort.Direction.ASC));
+        ensure("refresh_tokens", new Index().on("expiresAt", Sort.Direction.ASC).expire(0));
+
+        // History pages are read per user, newest first, keyed by (createdAt, _id)
+        ensure("calculations", new Index().on("userId", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC));
+
+        // Statistics are read by minute range; rollups are upserted by _id
+        ensure("calculation_rollups", new Index().on("minute", Sort.Direction.ASC));
+
+        // Audit events are read back by time and by user
+        ensure("audit_logs", new Index().on("timestamp", Sort.Direction.DESC));
+        ensure("audit_logs", new Index().on("userId", Sort.Direction.ASC));
+
+        // The outbox worker polls for due messages and looks up the batch it claimed
+        ensure("email_outbox", new Index().on("status", Sort.Direction.ASC)
+                .on("nextAttemptAt", Sort.Direction.ASC));
+        ensure("email_outbox", new Index().on("claimId", Sort.Direction.ASC).sparse());
 
-            // Create unique index for email
-            mongoTemplate.indexOps("users")
-                .ensureIndex(new Index().on("email", org.springframework.data.domain.Sort.Direction.ASC).unique());
+        logger.info("MongoDB indexes ensured");
+    }
 
-            System.out.println("MongoDB indexes created successfully");
+    /**
+     * Ensure an index the application cannot run correctly without
+     * @throws IllegalStateException if the index cannot be created, which stops startup
+     */
+    private void ensureRequired(String collection, Index index) {
+        try {
+            mongoTemplate.indexOps(collection).ensureIndex(index);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create required index " + index.getIndexKeys().toJson()
+                    + " on " + collection + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ensure an index that only affects performance; failures are logged and skipped
+     */
+    private void ensure(String collection, Index index) {
+        try {
+            mongoTemplate.indexOps(collection).ensureIndex(index);
         } catch (Exception e) {
-            System.out.println("Index creation skipped (may already exist): " + e.getMessage());
+            logger.error("Could not create index {} on {}: {}", index.getIndexKeys().toJson(), collection, e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.example.springdemo.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ReactorResourceFactory;
+
+/**
+ * Runs the 'reactive' profile on Reactor Netty. Tomcat is also on the classpath for the
+ * servlet stack and would otherwise be picked as the reactive server too.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        // Share event loops with the WebClient used for outbound calls
+        factory.setResourceFactory(resourceFactory);
+        return factory;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.springdemo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables @Scheduled background jobs such as the email outbox worker.
+ *
+ * The outbox worker blocks on the email provider for up to its lease per batch, so it runs on a
+ * scheduler of its own; the rollup flush has one too, so stored statistics stay within one flush
+ * interval of live traffic whatever else is scheduled. Other jobs use the default taskScheduler.
+ * Declaring a scheduler replaces Spring Boot's auto-configured one, hence the explicit default.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Default scheduler for @Scheduled methods that do not name one
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return scheduler("scheduling-");
+    }
+
+    @Bean(name = "emailOutboxScheduler")
+    public ThreadPoolTaskScheduler emailOutboxScheduler() {
+        return scheduler("email-outbox-");
+    }
+
+    @Bean(name = "calculationRollupScheduler")
+    public ThreadPoolTaskScheduler calculationRollupScheduler() {
+        return scheduler("calculation-rollup-");
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
@@ -1,10 +1,20 @@
 package com.example.springdemo.controller;
 
 import com.example.springdemo.controller.common.BaseController;
+import com.example.springdemo.dto.BatchCalculationItemDto;
+import com.example.springdemo.dto.BatchCalculationResponseDto;
 import com.example.springdemo.dto.CalculationDto;
+import com.example.springdemo.dto.CalculationHistoryPageDto;
 import com.example.springdemo.dto.CalculationResponseDto;
+import com.example.springdemo.dto.CalculationStatsDto;
+import com.example.springdemo.dto.ExpressionDto;
+import com.example.springdemo.dto.ExpressionResponseDto;
 import com.example.springdemo.model.common.ApiResponse;
+import com.example.springdemo.security.AuthenticatedUser;
 import com.example.springdemo.service.CalculationService;
+import com.example.springdemo.service.calculation.CalculationHistoryReader;
+import com.example.springdemo.service.calculation.CalculationRollups;
+import com.example.springdemo.service.calculation.NdjsonCalculationStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,21 +22,41 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/calculator")
 @Tag(name = "Calculator API", description = "Mathematical operations API for performing calculations on two numbers")
+@Profile("!reactive")
 public class CalculationController extends BaseController {
 
     private final CalculationService calculationService;
+    private final NdjsonCalculationStreamer ndjsonStreamer;
+    private final CalculationHistoryReader historyReader;
+    private final CalculationRollups rollups;
 
     @Autowired
-    public CalculationController(CalculationService calculationService) {
+    public CalculationController(CalculationService calculationService, NdjsonCalculationStreamer ndjsonStreamer,
+                                 CalculationHistoryReader historyReader, CalculationRollups rollups) {
         this.calculationService = calculationService;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.historyReader = historyReader;
+        this.rollups = rollups;
     }
 
     @PostMapping("/add")
@@ -232,6 +262,232 @@ public class CalculationController extends BaseController {
         }
     }
 
+    @PostMapping("/evaluate")
+    @Operation(
+        summary = "Evaluate an expression",
+        description = "Evaluates an arithmetic expression supporting operator precedence, parentheses, unary minus and named variables. Compiled expressions are cached, so repeated evaluations with different variable values skip parsing."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Expression evaluated successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Example",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Expression evaluated successfully\", \"data\": {\"expression\": \"(price - discount) * quantity\", \"variables\": {\"price\": 20.0, \"discount\": 2.5, \"quantity\": 3.0}, \"result\": 52.5, \"message\": \"Expression evaluated successfully\"}, \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/calculator/evaluate\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Malformed expression, unbound variable or division by zero"
+        )
+    })
+    public ResponseEntity<ApiResponse<ExpressionResponseDto>> evaluate(
+            @Parameter(
+                description = "Expression and variable bindings",
+                required = true,
+                content = @Content(
+                    examples = @ExampleObject(
+                        name = "Evaluation Request",
+                        value = "{\"expression\": \"(price - discount) * quantity\", \"variables\": {\"price\": 20, \"discount\": 2.5, \"quantity\": 3}}"
+                    )
+                )
+            )
+            @Valid @RequestBody ExpressionDto dto) {
+
+        logRequest("Expression Evaluation", dto);
+
+        try {
+            ExpressionResponseDto response = calculationService.evaluate(dto);
+            ApiResponse<ExpressionResponseDto> apiResponse = successResponse(response, "Expression evaluated successfully");
+            logResponse("Expression Evaluation", apiResponse);
+            return ResponseEntity.ok(apiResponse);
+        } catch (Exception e) {
+            logError("Expression Evaluation", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(badRequestResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Evaluate a batch of calculations",
+        description = "Evaluates an array of calculations with mixed operations in a single request. Results are returned in request order; failed items (e.g. division by zero) yield a null result and an entry in the errors list."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Batch calculation completed",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Example",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Batch calculation completed\", \"data\": {\"count\": 3, \"errorCount\": 1, \"results\": [15.0, null, 50.0], \"errors\": [{\"index\": 1, \"message\": \"Division by zero is not allowed\"}]}, \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/calculator/batch\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Missing or oversized batch"
+        )
+    })
+    public ResponseEntity<ApiResponse<BatchCalculationResponseDto>> batch(
+            @Parameter(
+                description = "Array of calculations to evaluate",
+                required = true,
+                content = @Content(
+                    examples = @ExampleObject(
+                        name = "Batch Request",
+                        value = "[{\"operation\": \"add\", \"number1\": 10, \"number2\": 5}, {\"operation\": \"divide\", \"number1\": 1, \"number2\": 0}, {\"operation\": \"multiply\", \"number1\": 10, \"number2\": 5}]"
+                    )
+                )
+            )
+            @RequestBody List<BatchCalculationItemDto> items) {
+
+        logRequest("Batch Calculation", (items != null ? items.size() : 0) + " items");
+
+        try {
+            BatchCalculationResponseDto response = calculationService.calculateBatch(items);
+            ApiResponse<BatchCalculationResponseDto> apiResponse = successResponse(response, "Batch calculation completed");
+            logResponse("Batch Calculation", response);
+            return ResponseEntity.ok(apiResponse);
+        } catch (Exception e) {
+            logError("Batch Calculation", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(badRequestResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Evaluate a stream of calculations",
+        description = "Accepts newline-delimited JSON calculation requests ({\"operation\", \"number1\", \"number2\"}) and streams one NDJSON result line per record. Input of any size is processed with constant memory."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Results streamed",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                examples = @ExampleObject(
+                    name = "Streamed Results",
+                    value = "{\"index\":0,\"operation\":\"addition\",\"number1\":10.0,\"number2\":5.0,\"result\":15.0}\n{\"index\":1,\"error\":\"Division by zero is not allowed\"}"
+                )
+            )
+        )
+    })
+    public void stream(HttpServletRequest request, HttpServletResponse response) {
+        logRequest("Streaming Calculation", "contentLength=" + request.getContentLengthLong());
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try {
+            long records = ndjsonStreamer.process(request.getInputStream(), response.getOutputStream());
+            logResponse("Streaming Calculation", records + " records");
+        } catch (IOException e) {
+            // Usually the client went away; once streaming has started the status can no longer change
+            logError("Streaming Calculation", e.getMessage(), e);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+            }
+        }
+    }
+
+    @GetMapping("/history")
+    @Operation(
+        summary = "Calculation history",
+        description = "Returns the authenticated caller's calculations, newest first. Pass the nextCursor of a page as cursor to fetch the following page; nextCursor is null on the last page. Page latency does not depend on how far the caller has scrolled."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "History page returned",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "History Page",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Calculation history retrieved\", \"data\": {\"items\": [{\"id\": \"6873b8f0e4b0a53c1d2e4f5a\", \"operation\": \"addition\", \"number1\": 10.0, \"number2\": 5.0, \"expression\": null, \"result\": 15.0, \"createdAt\": \"2025-07-13T11:30:00.123\"}], \"nextCursor\": \"MjAyNS0wNy0xM1QxMTozMDowMC4xMjN8Njg3M2I4ZjBlNGIwYTUzYzFkMmU0ZjVh\"}, \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/calculator/history\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Invalid cursor or limit"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Missing or invalid access token"
+        )
+    })
+    public ResponseEntity<ApiResponse<CalculationHistoryPageDto>> history(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Parameter(description = "nextCursor from the previous page; omit for the newest calculations")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, at most 500)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+
+        logRequest("Calculation History", "limit=" + limit + ", cursor=" + cursor);
+
+        try {
+            CalculationHistoryPageDto page = historyReader.page(user.getId(), cursor, limit);
+            ApiResponse<CalculationHistoryPageDto> apiResponse = successResponse(page, "Calculation history retrieved");
+            logResponse("Calculation History", page);
+            return ResponseEntity.ok(apiResponse);
+        } catch (IllegalArgumentException e) {
+            logError("Calculation History", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(badRequestResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+        summary = "Calculation statistics",
+        description = "Returns per-minute totals by operation (count, operand and result sums, mean, min and max result) from pre-aggregated rollups. Defaults to the last hour; ranges are limited to 24 hours. Figures lag live traffic by up to the rollup flush interval."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Statistics returned",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Statistics",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Calculation statistics retrieved\", \"data\": {\"from\": \"2025-07-13T11:00:00\", \"to\": \"2025-07-13T12:00:00\", \"rollups\": [{\"minute\": \"2025-07-13T11:30:00\", \"operation\": \"addition\", \"count\": 1200, \"number1Sum\": 12000.0, \"number2Sum\": 6000.0, \"resultSum\": 18000.0, \"resultAverage\": 15.0, \"resultMin\": -3.5, \"resultMax\": 250.0}]}, \"timestamp\": \"2025-07-13T12:00:00\", \"path\": \"/api/calculator/stats\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Invalid range or operation"
+        )
+    })
+    public ResponseEntity<ApiResponse<CalculationStatsDto>> stats(
+            @Parameter(description = "Start of the range (inclusive); defaults to one hour before to", example = "2025-07-13T11:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range (exclusive); defaults to now", example = "2025-07-13T12:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only this operation (e.g. addition, add or expression); all operations if omitted", example = "addition")
+            @RequestParam(required = false) String operation) {
+
+        logRequest("Calculation Statistics", "from=" + from + ", to=" + to + ", operation=" + operation);
+
+        try {
+            CalculationStatsDto stats = rollups.stats(from, to, operation);
+            ApiResponse<CalculationStatsDto> apiResponse = successResponse(stats, "Calculation statistics retrieved");
+            logResponse("Calculation Statistics", stats);
+            return ResponseEntity.ok(apiResponse);
+        } catch (IllegalArgumentException e) {
+            logError("Calculation Statistics", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(badRequestResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping("/add")
     @Operation(
         summary = "Add two numbers (Simple GET)",
@@ -253,9 +509,9 @@ public class CalculationController extends BaseController {
     })
     public ResponseEntity<ApiResponse<CalculationResponseDto>> addSimple(
             @Parameter(description = "First number", example = "10.0", required = true)
-            @RequestParam Double number1,
+            @RequestParam double number1,
             @Parameter(description = "Second number", example = "5.0", required = true)
-            @RequestParam Double number2) {
+            @RequestParam double number2) {
         
         logRequest("Simple Addition", "number1=" + number1 + ", number2=" + number2);
         
@@ -1,5 +1,9 @@
 package com.example.springdemo.controller.auth;
 
+import com.example.springdemo.controller.common.BaseController;
+import com.example.springdemo.exception.LoginThrottledException;
+import com.example.springdemo.exception.ServiceOverloadedException;
+import com.example.springdemo.model.audit.AuditEventType;
 import com.example.springdemo.model.auth.AuthResponse;
 import com.example.springdemo.model.auth.ForgotPasswordRequest;
 import com.example.springdemo.model.auth.LoginRequest;
@@ -7,6 +11,8 @@ import com.example.springdemo.model.auth.RefreshTokenRequest;
 import com.example.springdemo.model.auth.ResetPasswordRequest;
 import com.example.springdemo.model.auth.SignupRequest;
 import com.example.springdemo.model.common.ApiResponse;
+import com.example.springdemo.security.LoginThrottler;
+import com.example.springdemo.service.audit.AuditLog;
 import com.example.springdemo.service.auth.AuthService;
 import com.example.springdemo.util.ResponseUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,21 +22,29 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication API", description = "User authentication and authorization endpoints")
-public class AuthController {
+@Profile("!reactive")
+public class AuthController extends BaseController {
 
     private final AuthService authService;
+    private final LoginThrottler loginThrottler;
+    private final AuditLog auditLog;
 
     @Autowired
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginThrottler loginThrottler, AuditLog auditLog) {
         this.authService = authService;
+        this.loginThrottler = loginThrottler;
+        this.auditLog = auditLog;
     }
 
     @PostMapping("/signup")
@@ -77,12 +91,16 @@ public class AuthController {
             )
             @Valid @RequestBody SignupRequest signupRequest) {
         try {
-            AuthResponse response = authService.signup(signupRequest);
+            AuthResponse response = authService.signup(signupRequest, getClientIpAddress());
             if (response.getToken() != null) {
                 return ResponseUtil.success(response, "User registered successfully", "/api/auth/signup");
             } else {
                 return ResponseUtil.badRequest(response.getMessage(), "/api/auth/signup");
             }
+        } catch (ServiceOverloadedException e) {
+            auditLog.record(AuditEventType.REQUEST_REJECTED, false, null, signupRequest.getUsername(), getClientIpAddress(),
+                    "/api/auth/signup: " + e.getMessage());
+            return ResponseUtil.serviceUnavailable(e.getMessage(), "/api/auth/signup", e.getRetryAfterSeconds());
         } catch (Exception e) {
             return ResponseUtil.badRequest("Registration failed: " + e.getMessage(), "/api/auth/signup");
         }
@@ -117,6 +135,18 @@ public class AuthController {
                     value = "{\"status\": \"error\", \"code\": 400, \"message\": \"Invalid username/email or password\", \"errors\": [\"Invalid username/email or password\"], \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/login\"}"
                 )
             )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "429",
+            description = "Too many login attempts for this account or client address; retry after the Retry-After header",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Throttled Response",
+                    value = "{\"status\": \"error\", \"code\": 429, \"message\": \"Too many login attempts, please retry later\", \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/login\"}"
+                )
+            )
         )
     })
     public ResponseEntity<ApiResponse<AuthResponse>> login(
@@ -130,14 +160,25 @@ public class AuthController {
                     )
                 )
             )
-            @Valid @RequestBody LoginRequest loginRequest) {
+            @Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
         try {
-            AuthResponse response = authService.login(loginRequest);
+            // Throttle before any user lookup or password verification
+            loginThrottler.checkLogin(loginRequest.getUsernameOrEmail(), request.getRemoteAddr());
+            AuthResponse response = authService.login(loginRequest, getClientIpAddress());
             if (response.getToken() != null) {
                 return ResponseUtil.success(response, "Login successful", "/api/auth/login");
             } else {
                 return ResponseUtil.badRequest(response.getMessage(), "/api/auth/login");
             }
+        } catch (LoginThrottledException e) {
+            auditLog.record(AuditEventType.LOGIN_THROTTLED, false, null, loginRequest.getUsernameOrEmail(),
+                    getClientIpAddress(), e.getMessage());
+            return ResponseUtil.tooManyRequests(e.getMessage(), "/api/auth/login", e.getRetryAfterSeconds());
+        } catch (ServiceOverloadedException e) {
+            auditLog.record(AuditEventType.REQUEST_REJECTED, false, null, loginRequest.getUsernameOrEmail(),
+                    getClientIpAddress(), "/api/auth/login: " + e.getMessage());
+            return ResponseUtil.serviceUnavailable(e.getMessage(), "/api/auth/login", e.getRetryAfterSeconds());
         } catch (Exception e) {
             return ResponseUtil.badRequest("Login failed: " + e.getMessage(), "/api/auth/login");
         }
@@ -187,7 +228,7 @@ public class AuthController {
             )
             @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
         try {
-            AuthResponse response = authService.refreshToken(refreshTokenRequest);
+            AuthResponse response = authService.refreshToken(refreshTokenRequest, getClientIpAddress());
             if (response.getToken() != null) {
                 return ResponseUtil.success(response, "Token refreshed successfully", "/api/auth/refresh");
             } else {
@@ -198,6 +239,126 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout")
+    @Operation(
+        summary = "Logout",
+        description = "Revokes the refresh token and drops the access token passed in the Authorization header from the verified-token cache"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Logged out successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Logged out successfully\", \"data\": {\"type\": \"Bearer\", \"message\": \"Logged out successfully\"}, \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/logout\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Invalid refresh token",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Error Response",
+                    value = "{\"status\": \"error\", \"code\": 400, \"message\": \"Invalid refresh token\", \"errors\": [\"Invalid refresh token\"], \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/logout\"}"
+                )
+            )
+        )
+    })
+    public ResponseEntity<ApiResponse<AuthResponse>> logout(
+            @Parameter(description = "Bearer access token", example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Parameter(
+                description = "Refresh token to revoke",
+                required = true,
+                content = @Content(
+                    examples = @ExampleObject(
+                        name = "Logout Request",
+                        value = "{\"refreshToken\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}"
+                    )
+                )
+            )
+            @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7)
+                    : null;
+            AuthResponse response = authService.logout(accessToken, refreshTokenRequest, getClientIpAddress());
+            if (response.getMessage() != null && response.getMessage().contains("successfully")) {
+                return ResponseUtil.success(response, "Logged out successfully", "/api/auth/logout");
+            } else {
+                return ResponseUtil.badRequest(response.getMessage(), "/api/auth/logout");
+            }
+        } catch (Exception e) {
+            return ResponseUtil.badRequest("Logout failed: " + e.getMessage(), "/api/auth/logout");
+        }
+    }
+
+    @PostMapping("/logout-all")
+    @Operation(
+        summary = "Logout from all devices",
+        description = "Revokes every refresh session of the user owning the given refresh token, and drops the access token passed in the Authorization header from the verified-token cache"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "All sessions revoked",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Logged out of all sessions successfully\", \"data\": {\"type\": \"Bearer\", \"message\": \"Logged out of all sessions successfully\"}, \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/logout-all\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Invalid refresh token",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Error Response",
+                    value = "{\"status\": \"error\", \"code\": 400, \"message\": \"Invalid refresh token\", \"errors\": [\"Invalid refresh token\"], \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/logout-all\"}"
+                )
+            )
+        )
+    })
+    public ResponseEntity<ApiResponse<AuthResponse>> logoutAll(
+            @Parameter(description = "Bearer access token", example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Parameter(
+                description = "A current refresh token of the user",
+                required = true,
+                content = @Content(
+                    examples = @ExampleObject(
+                        name = "Logout All Request",
+                        value = "{\"refreshToken\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}"
+                    )
+                )
+            )
+            @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7)
+                    : null;
+            AuthResponse response = authService.logoutAll(accessToken, refreshTokenRequest, getClientIpAddress());
+            if (response.getMessage() != null && response.getMessage().contains("successfully")) {
+                return ResponseUtil.success(response, "Logged out of all sessions successfully", "/api/auth/logout-all");
+            } else {
+                return ResponseUtil.badRequest(response.getMessage(), "/api/auth/logout-all");
+            }
+        } catch (Exception e) {
+            return ResponseUtil.badRequest("Logout failed: " + e.getMessage(), "/api/auth/logout-all");
+        }
+    }
+
     @PostMapping("/forgot-password")
     @Operation(
         summary = "Forgot password",
@@ -242,7 +403,7 @@ public class AuthController {
             )
             @Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
         try {
-            AuthResponse response = authService.forgotPassword(forgotPasswordRequest);
+            AuthResponse response = authService.forgotPassword(forgotPasswordRequest, getClientIpAddress());
             return ResponseUtil.success(response, response.getMessage(), "/api/auth/forgot-password");
         } catch (Exception e) {
             return ResponseUtil.badRequest("Forgot password failed: " + e.getMessage(), "/api/auth/forgot-password");
@@ -293,17 +454,68 @@ public class AuthController {
             )
             @Valid @RequestBody ResetPasswordRequest resetPasswordRequest) {
         try {
-            AuthResponse response = authService.resetPassword(resetPasswordRequest);
+            AuthResponse response = authService.resetPassword(resetPasswordRequest, getClientIpAddress());
             if (response.getMessage() != null && response.getMessage().contains("successfully")) {
                 return ResponseUtil.success(response, "Password reset successfully", "/api/auth/reset-password");
             } else {
                 return ResponseUtil.badRequest(response.getMessage(), "/api/auth/reset-password");
             }
+        } catch (ServiceOverloadedException e) {
+            auditLog.record(AuditEventType.REQUEST_REJECTED, false, null, null, getClientIpAddress(),
+                    "/api/auth/reset-password: " + e.getMessage());
+            return ResponseUtil.serviceUnavailable(e.getMessage(), "/api/auth/reset-password", e.getRetryAfterSeconds());
         } catch (Exception e) {
             return ResponseUtil.badRequest("Password reset failed: " + e.getMessage(), "/api/auth/reset-password");
         }
     }
 
+    @GetMapping("/username-available")
+    @Operation(
+        summary = "Check username availability",
+        description = "Returns whether a username can still be registered. Most answers come from an in-memory filter without a database query"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Availability checked",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = "{\"status\": \"success\", \"code\": 200, \"message\": \"Username is available\", \"data\": true, \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/username-available\"}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Bad request - Username is missing",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponse.class),
+                examples = @ExampleObject(
+                    name = "Error Response",
+                    value = "{\"status\": \"error\", \"code\": 400, \"message\": \"Username is required\", \"errors\": [\"Username is required\"], \"timestamp\": \"2025-07-13T11:30:00\", \"path\": \"/api/auth/username-available\"}"
+                )
+            )
+        )
+    })
+    public ResponseEntity<ApiResponse<Boolean>> usernameAvailable(
+            @Parameter(description = "Username to check", required = true, example = "john_doe")
+            @RequestParam(required = false) String username) {
+        if (username == null || username.isBlank()) {
+            return ResponseUtil.badRequest("Username is required", "/api/auth/username-available");
+        }
+        try {
+            boolean available = authService.isUsernameAvailable(username);
+            return ResponseUtil.success(available,
+                    available ? "Username is available" : "Username is already taken",
+                    "/api/auth/username-available");
+        } catch (Exception e) {
+            return ResponseUtil.badRequest("Username check failed: " + e.getMessage(), "/api/auth/username-available");
+        }
+    }
+
     @GetMapping("/health")
     @Operation(
         summary = "Health check",
@@ -0,0 +1,135 @@
+package com.example.springdemo.controller.auth;
+
+import com.example.springdemo.model.auth.AuthResponse;
+import com.example.springdemo.model.auth.ForgotPasswordRequest;
+import com.example.springdemo.model.auth.LoginRequest;
+import com.example.springdemo.model.auth.RefreshTokenRequest;
+import com.example.springdemo.model.auth.ResetPasswordRequest;
+import com.example.springdemo.model.auth.SignupRequest;
+import com.example.springdemo.model.common.ApiResponse;
+import com.example.springdemo.security.LoginThrottler;
+import com.example.springdemo.service.auth.ReactiveAuthService;
+import com.example.springdemo.util.ResponseUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * WebFlux variant of {@link AuthController}, active with the 'reactive' profile.
+ * Same paths, payloads and responses; handlers return without blocking the event loop.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@Tag(name = "Authentication API", description = "User authentication and authorization endpoints")
+@Profile("reactive")
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+    private final LoginThrottler loginThrottler;
+
+    public ReactiveAuthController(ReactiveAuthService authService, LoginThrottler loginThrottler) {
+        this.authService = authService;
+        this.loginThrottler = loginThrottler;
+    }
+
+    @PostMapping("/signup")
+    @Operation(summary = "Register a new user", description = "Creates a new user account with the provided information and returns a JWT token and refresh token")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> signup(@Valid @RequestBody SignupRequest signupRequest) {
+        return authService.signup(signupRequest)
+                .map(response -> response.getToken() != null
+                        ? ResponseUtil.success(response, "User registered successfully", "/api/auth/signup")
+                        : ResponseUtil.<AuthResponse>badRequest(response.getMessage(), "/api/auth/signup"));
+    }
+
+    @PostMapping("/login")
+    @Operation(summary = "User login", description = "Authenticates a user with username/email and password and returns a JWT token and refresh token")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> login(@Valid @RequestBody LoginRequest loginRequest, ServerHttpRequest request) {
+        // Throttle before any user lookup or password verification
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        loginThrottler.checkLogin(loginRequest.getUsernameOrEmail(),
+                remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : null);
+        return authService.login(loginRequest)
+                .map(response -> response.getToken() != null
+                        ? ResponseUtil.success(response, "Login successful", "/api/auth/login")
+                        : ResponseUtil.<AuthResponse>badRequest(response.getMessage(), "/api/auth/login"));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh JWT token", description = "Refreshes the JWT token using a valid refresh token and returns a new JWT token and refresh token")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return authService.refreshToken(refreshTokenRequest)
+                .map(response -> response.getToken() != null
+                        ? ResponseUtil.success(response, "Token refreshed successfully", "/api/auth/refresh")
+                        : ResponseUtil.<AuthResponse>badRequest(response.getMessage(), "/api/auth/refresh"));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the refresh token and drops the access token passed in the Authorization header from the verified-token cache")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        return authService.logout(accessToken, refreshTokenRequest)
+                .map(response -> response.getMessage() != null && response.getMessage().contains("successfully")
+                        ? ResponseUtil.success(response, "Logged out successfully", "/api/auth/logout")
+                        : ResponseUtil.<AuthResponse>badRequest(response.getMessage(), "/api/auth/logout"));
+    }
+
+    @PostMapping("/logout-all")
+    @Operation(summary = "Logout from all devices", description = "Revokes every refresh session of the user owning the given refresh token, and drops the access token passed in the Authorization header from the verified-token cache")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> logoutAll(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        return authService.logoutAll(accessToken, refreshTokenRequest)
+                .map(response -> response.getMessage() != null && response.getMessage().contains("successfully")
+                        ? ResponseUtil.success(response, "Logged out of all sessions successfully", "/api/auth/logout-all")
+                        : ResponseUtil.<AuthResponse>badRequest(response.getMessage(), "/api/auth/logout-all"));
+    }
+
+    @PostMapping("/forgot-password")
+    @Operation(summary = "Forgot password", description = "Sends a password reset email to the provided email address")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
+        return authService.forgotPassword(forgotPasswordRequest)
+                .map(response -> ResponseUtil.success(response, response.getMessage(), "/api/auth/forgot-password"));
+    }
+
+    @PostMapping("/reset-password")
+    @Operation(summary = "Reset password", description = "Resets the user password using a valid reset token")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> resetPassword(@Valid @RequestBody ResetPasswordRequest resetPasswordRequest) {
+        return authService.resetPassword(resetPasswordRequest)
+                .map(response -> response.getMessage() != null && response.getMessage().contains("successfully")
+                        ? ResponseUtil.success(response, "Password reset successfully", "/api/auth/reset-password")
+                        : ResponseUtil.<AuthResponse>badRequest(response.getMessage(), "/api/auth/reset-password"));
+    }
+
+    @GetMapping("/username-available")
+    @Operation(summary = "Check username availability", description = "Returns whether a username can still be registered. Most answers come from an in-memory filter without a database query")
+    public Mono<ResponseEntity<ApiResponse<Boolean>>> usernameAvailable(@RequestParam(required = false) String username) {
+        if (username == null || username.isBlank()) {
+            return Mono.just(ResponseUtil.badRequest("Username is required", "/api/auth/username-available"));
+        }
+        return authService.isUsernameAvailable(username)
+                .map(available -> ResponseUtil.success(available,
+                        available ? "Username is available" : "Username is already taken",
+                        "/api/auth/username-available"));
+    }
+
+    @GetMapping("/health")
+    @Operation(summary = "Health check", description = "Returns the health status of the authentication API")
+    public Mono<ResponseEntity<ApiResponse<String>>> health() {
+        return Mono.just(ResponseUtil.success("Authentication API is running!", "/api/auth/health"));
+    }
+}
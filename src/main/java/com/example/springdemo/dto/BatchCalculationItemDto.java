@@ -0,0 +1,60 @@
+package com.example.springdemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Single calculation within a batch request")
+public class BatchCalculationItemDto {
+
+    @Schema(description = "Operation to perform", example = "add", allowableValues = {"add", "subtract", "multiply", "divide", "addition", "subtraction", "multiplication", "division"})
+    private String operation;
+
+    @Schema(description = "First number for calculation", example = "10.0")
+    private Double number1;
+
+    @Schema(description = "Second number for calculation", example = "5.0")
+    private Double number2;
+
+    // Default constructor
+    public BatchCalculationItemDto() {}
+
+    // Constructor with parameters
+    public BatchCalculationItemDto(String operation, Double number1, Double number2) {
+        this.operation = operation;
+        this.number1 = number1;
+        this.number2 = number2;
+    }
+
+    // Getters and Setters
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Double getNumber1() {
+        return number1;
+    }
+
+    public void setNumber1(Double number1) {
+        this.number1 = number1;
+    }
+
+    public Double getNumber2() {
+        return number2;
+    }
+
+    public void setNumber2(Double number2) {
+        this.number2 = number2;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCalculationItemDto{" +
+                "operation='" + operation + '\'' +
+                ", number1=" + number1 +
+                ", number2=" + number2 +
+                '}';
+    }
+}
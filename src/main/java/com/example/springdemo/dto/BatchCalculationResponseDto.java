@@ -0,0 +1,107 @@
+package com.example.springdemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Batch Calculation Response Data Transfer Object")
+public class BatchCalculationResponseDto {
+
+    @Schema(description = "Number of items in the batch", example = "3")
+    private int count;
+
+    @Schema(description = "Number of items that failed", example = "1")
+    private int errorCount;
+
+    @Schema(description = "Results in request order; null where the item failed", example = "[15.0, null, 50.0]")
+    private Double[] results;
+
+    @Schema(description = "Per-item errors (only present for failed items)")
+    private List<ItemError> errors;
+
+    // Default constructor
+    public BatchCalculationResponseDto() {}
+
+    // Constructor with parameters
+    public BatchCalculationResponseDto(Double[] results, List<ItemError> errors) {
+        this.count = results.length;
+        this.errorCount = errors.size();
+        this.results = results;
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public Double[] getResults() {
+        return results;
+    }
+
+    public void setResults(Double[] results) {
+        this.results = results;
+    }
+
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ItemError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCalculationResponseDto{" +
+                "count=" + count +
+                ", errorCount=" + errorCount +
+                '}';
+    }
+
+    // Inner class for per-item errors
+    @Schema(description = "Error for a single batch item")
+    public static class ItemError {
+
+        @Schema(description = "Zero-based index of the failed item", example = "1")
+        private int index;
+
+        @Schema(description = "Error message", example = "Division by zero is not allowed")
+        private String message;
+
+        public ItemError() {}
+
+        public ItemError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
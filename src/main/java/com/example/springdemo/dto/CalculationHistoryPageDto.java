@@ -0,0 +1,146 @@
+package com.example.springdemo.dto;
+
+import com.example.springdemo.model.calculation.CalculationRecord;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "One page of the caller's calculation history, newest first")
+public class CalculationHistoryPageDto {
+
+    @Schema(description = "Calculations on this page, newest first")
+    private List<Entry> items;
+
+    @Schema(description = "Opaque cursor for the next page; null when there are no older calculations",
+            example = "MjAyNS0wNy0xM1QxMTozMDowMC4xMjN8Njg3M2I4ZjBlNGIwYTUzYzFkMmU0ZjVh")
+    private String nextCursor;
+
+    // Default constructor
+    public CalculationHistoryPageDto() {}
+
+    // Constructor with parameters
+    public CalculationHistoryPageDto(List<Entry> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<Entry> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Entry> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "CalculationHistoryPageDto{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+
+    // Inner class for a single history entry
+    @Schema(description = "A calculation from the history")
+    public static class Entry {
+
+        @Schema(description = "Calculation id", example = "6873b8f0e4b0a53c1d2e4f5a")
+        private String id;
+
+        @Schema(description = "Operation performed", example = "addition")
+        private String operation;
+
+        @Schema(description = "First operand of a binary operation", example = "10.0")
+        private Double number1;
+
+        @Schema(description = "Second operand of a binary operation", example = "5.0")
+        private Double number2;
+
+        @Schema(description = "Evaluated expression, for expression evaluations", example = "(price - discount) * quantity")
+        private String expression;
+
+        @Schema(description = "Result of the calculation", example = "15.0")
+        private double result;
+
+        @Schema(description = "When the calculation was performed", example = "2025-07-13T11:30:00.123")
+        private LocalDateTime createdAt;
+
+        public Entry() {}
+
+        public Entry(CalculationRecord record) {
+            this.id = record.getId();
+            this.operation = record.getOperation();
+            this.number1 = record.getNumber1();
+            this.number2 = record.getNumber2();
+            this.expression = record.getExpression();
+            this.result = record.getResult();
+            this.createdAt = record.getCreatedAt();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public void setOperation(String operation) {
+            this.operation = operation;
+        }
+
+        public Double getNumber1() {
+            return number1;
+        }
+
+        public void setNumber1(Double number1) {
+            this.number1 = number1;
+        }
+
+        public Double getNumber2() {
+            return number2;
+        }
+
+        public void setNumber2(Double number2) {
+            this.number2 = number2;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public void setExpression(String expression) {
+            this.expression = expression;
+        }
+
+        public double getResult() {
+            return result;
+        }
+
+        public void setResult(double result) {
+            this.result = result;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
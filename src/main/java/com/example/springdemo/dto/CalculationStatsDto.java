@@ -0,0 +1,182 @@
+package com.example.springdemo.dto;
+
+import com.example.springdemo.model.calculation.CalculationRollup;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Per-minute calculation statistics by operation")
+public class CalculationStatsDto {
+
+    @Schema(description = "Start of the range (inclusive)", example = "2025-07-13T11:00:00")
+    private LocalDateTime from;
+
+    @Schema(description = "End of the range (exclusive)", example = "2025-07-13T12:00:00")
+    private LocalDateTime to;
+
+    @Schema(description = "One entry per minute and operation with at least one calculation, oldest first")
+    private List<Entry> rollups;
+
+    // Default constructor
+    public CalculationStatsDto() {}
+
+    // Constructor with parameters
+    public CalculationStatsDto(LocalDateTime from, LocalDateTime to, List<Entry> rollups) {
+        this.from = from;
+        this.to = to;
+        this.rollups = rollups;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public List<Entry> getRollups() {
+        return rollups;
+    }
+
+    public void setRollups(List<Entry> rollups) {
+        this.rollups = rollups;
+    }
+
+    @Override
+    public String toString() {
+        return "CalculationStatsDto{" +
+                "from=" + from +
+                ", to=" + to +
+                ", rollups=" + (rollups != null ? rollups.size() : 0) +
+                '}';
+    }
+
+    // Inner class for the totals of one operation within one minute
+    @Schema(description = "Totals of one operation within one minute")
+    public static class Entry {
+
+        @Schema(description = "Start of the minute", example = "2025-07-13T11:30:00")
+        private LocalDateTime minute;
+
+        @Schema(description = "Operation", example = "addition")
+        private String operation;
+
+        @Schema(description = "Number of calculations", example = "1200")
+        private long count;
+
+        @Schema(description = "Sum of first operands (binary operations only)", example = "12000.0")
+        private double number1Sum;
+
+        @Schema(description = "Sum of second operands (binary operations only)", example = "6000.0")
+        private double number2Sum;
+
+        @Schema(description = "Sum of results", example = "18000.0")
+        private double resultSum;
+
+        @Schema(description = "Mean result", example = "15.0")
+        private double resultAverage;
+
+        @Schema(description = "Smallest result", example = "-3.5")
+        private Double resultMin;
+
+        @Schema(description = "Largest result", example = "250.0")
+        private Double resultMax;
+
+        public Entry() {}
+
+        public Entry(CalculationRollup rollup) {
+            this.minute = rollup.getMinute();
+            this.operation = rollup.getOperation();
+            this.count = rollup.getCount();
+            this.number1Sum = rollup.getNumber1Sum();
+            this.number2Sum = rollup.getNumber2Sum();
+            this.resultSum = rollup.getResultSum();
+            this.resultAverage = count > 0 ? resultSum / count : 0;
+            this.resultMin = rollup.getResultMin();
+            this.resultMax = rollup.getResultMax();
+        }
+
+        public LocalDateTime getMinute() {
+            return minute;
+        }
+
+        public void setMinute(LocalDateTime minute) {
+            this.minute = minute;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public void setOperation(String operation) {
+            this.operation = operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getNumber1Sum() {
+            return number1Sum;
+        }
+
+        public void setNumber1Sum(double number1Sum) {
+            this.number1Sum = number1Sum;
+        }
+
+        public double getNumber2Sum() {
+            return number2Sum;
+        }
+
+        public void setNumber2Sum(double number2Sum) {
+            this.number2Sum = number2Sum;
+        }
+
+        public double getResultSum() {
+            return resultSum;
+        }
+
+        public void setResultSum(double resultSum) {
+            this.resultSum = resultSum;
+        }
+
+        public double getResultAverage() {
+            return resultAverage;
+        }
+
+        public void setResultAverage(double resultAverage) {
+            this.resultAverage = resultAverage;
+        }
+
+        public Double getResultMin() {
+            return resultMin;
+        }
+
+        public void setResultMin(Double resultMin) {
+            this.resultMin = resultMin;
+        }
+
+        public Double getResultMax() {
+            return resultMax;
+        }
+
+        public void setResultMax(Double resultMax) {
+            this.resultMax = resultMax;
+        }
+    }
+}
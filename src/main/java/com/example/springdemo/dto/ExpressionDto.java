@@ -0,0 +1,53 @@
+package com.example.springdemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.Map;
+
+@Schema(description = "Expression Evaluation Data Transfer Object")
+public class ExpressionDto {
+
+    @Schema(description = "Arithmetic expression using + - * /, parentheses, unary minus and named variables", example = "(price - discount) * quantity", required = true)
+    @NotBlank(message = "Expression is required")
+    @Size(max = 4096, message = "Expression must not exceed 4096 characters")
+    private String expression;
+
+    @Schema(description = "Values for the variables used in the expression", example = "{\"price\": 20.0, \"discount\": 2.5, \"quantity\": 3}")
+    private Map<String, Double> variables;
+
+    // Default constructor
+    public ExpressionDto() {}
+
+    // Constructor with parameters
+    public ExpressionDto(String expression, Map<String, Double> variables) {
+        this.expression = expression;
+        this.variables = variables;
+    }
+
+    // Getters and Setters
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
+    public Map<String, Double> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(Map<String, Double> variables) {
+        this.variables = variables;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionDto{" +
+                "expression='" + expression + '\'' +
+                ", variables=" + variables +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.springdemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Expression Evaluation Response Data Transfer Object")
+public class ExpressionResponseDto {
+
+    @Schema(description = "Evaluated expression", example = "(price - discount) * quantity")
+    private String expression;
+
+    @Schema(description = "Variable values used for the evaluation", example = "{\"price\": 20.0, \"discount\": 2.5, \"quantity\": 3.0}")
+    private Map<String, Double> variables;
+
+    @Schema(description = "Result of the evaluation", example = "52.5")
+    private Double result;
+
+    @Schema(description = "Success message", example = "Expression evaluated successfully")
+    private String message;
+
+    // Default constructor
+    public ExpressionResponseDto() {}
+
+    // Constructor with parameters
+    public ExpressionResponseDto(String expression, Map<String, Double> variables, Double result) {
+        this.expression = expression;
+        this.variables = variables;
+        this.result = result;
+        this.message = "Expression evaluated successfully";
+    }
+
+    // Getters and Setters
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
+    public Map<String, Double> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(Map<String, Double> variables) {
+        this.variables = variables;
+    }
+
+    public Double getResult() {
+        return result;
+    }
+
+    public void setResult(Double result) {
+        this.result = result;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionResponseDto{" +
+                "expression='" + expression + '\'' +
+                ", variables=" + variables +
+                ", result=" + result +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
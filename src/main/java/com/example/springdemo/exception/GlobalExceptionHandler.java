@@ -1,8 +1,10 @@
 package com.example.springdemo.exception;
 
 import com.example.springdemo.model.common.ApiResponse;
+import com.example.springdemo.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -15,6 +17,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
@@ -59,6 +62,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLoginThrottledException(
+            LoginThrottledException ex, WebRequest request) {
+
+        String path = request.getDescription(false).replace("uri=", "");
+        logger.warn("Login throttled: {}", ex.getMessage());
+        return ResponseUtil.tooManyRequests(ex.getMessage(), path, ex.getRetryAfterSeconds());
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloadedException(
+            ServiceOverloadedException ex, WebRequest request) {
+
+        String path = request.getDescription(false).replace("uri=", "");
+        logger.warn("Service overloaded: {}", ex.getMessage());
+        return ResponseUtil.serviceUnavailable(ex.getMessage(), path, ex.getRetryAfterSeconds());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<Void>> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
@@ -0,0 +1,21 @@
+package com.example.springdemo.exception;
+
+/**
+ * Thrown when login attempts for an account or client address exceed the allowed rate.
+ * Mapped to HTTP 429 with a Retry-After header.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.springdemo.exception;
+
+import com.example.springdemo.model.common.ApiResponse;
+import com.example.springdemo.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * WebFlux counterpart of {@link GlobalExceptionHandler}, active with the 'reactive' profile
+ */
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Void>> handleValidationExceptions(
+            WebExchangeBindException ex, ServerHttpRequest request) {
+
+        List<String> errors = ex.getBindingResult().getAllErrors().stream()
+                .map(error -> {
+                    String fieldName = ((FieldError) error).getField();
+                    String errorMessage = error.getDefaultMessage();
+                    return fieldName + ": " + errorMessage;
+                })
+                .collect(Collectors.toList());
+
+        ApiResponse<Void> errorResponse = ApiResponse.error(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation failed",
+            errors,
+            request.getPath().value()
+        );
+
+        logger.warn("Validation error: {}", errors);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, ServerWebInputException.class})
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgumentException(
+            Exception ex, ServerHttpRequest request) {
+
+        ApiResponse<Void> errorResponse = ApiResponse.error(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid argument",
+            List.of(String.valueOf(ex.getMessage())),
+            request.getPath().value()
+        );
+
+        logger.warn("Illegal argument error: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLoginThrottledException(
+            LoginThrottledException ex, ServerHttpRequest request) {
+
+        logger.warn("Login throttled: {}", ex.getMessage());
+        return ResponseUtil.tooManyRequests(ex.getMessage(), request.getPath().value(), ex.getRetryAfterSeconds());
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloadedException(
+            ServiceOverloadedException ex, ServerHttpRequest request) {
+
+        logger.warn("Service overloaded: {}", ex.getMessage());
+        return ResponseUtil.serviceUnavailable(ex.getMessage(), request.getPath().value(), ex.getRetryAfterSeconds());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<Void>> handleGenericException(
+            Exception ex, ServerHttpRequest request) {
+
+        ApiResponse<Void> errorResponse = ApiResponse.error(
+            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            "An unexpected error occurred",
+            List.of(String.valueOf(ex.getMessage())),
+            request.getPath().value()
+        );
+
+        logger.error("Unexpected error: {}", ex.getMessage(), ex);
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
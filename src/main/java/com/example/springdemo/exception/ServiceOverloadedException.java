@@ -0,0 +1,21 @@
+package com.example.springdemo.exception;
+
+/**
+ * Thrown when a bounded resource rejects work instead of queueing it indefinitely.
+ * Mapped to HTTP 503 with a Retry-After header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.springdemo.model.audit;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the audit_logs collection.
+ *
+ * userId is null when the subject could not be resolved (e.g. a login for an unknown user), in which
+ * case username holds whatever identifier the caller presented. Written in bulk by AuditLog.
+ */
+@Document(collection = "audit_logs")
+public class AuditEvent {
+
+    @Id
+    private String id;
+
+    private AuditEventType type;
+    private boolean success;
+    private String userId;
+    private String username;
+    private String ipAddress;
+    private String detail;
+    private LocalDateTime timestamp;
+
+    // Default constructor
+    public AuditEvent() {}
+
+    public AuditEvent(AuditEventType type, boolean success, String userId, String username,
+                      String ipAddress, String detail, LocalDateTime timestamp) {
+        this.type = type;
+        this.success = success;
+        this.userId = userId;
+        this.username = username;
+        this.ipAddress = ipAddress;
+        this.detail = detail;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public AuditEventType getType() {
+        return type;
+    }
+
+    public void setType(AuditEventType type) {
+        this.type = type;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public void setIpAddress(String ipAddress) {
+        this.ipAddress = ipAddress;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditEvent{" +
+                "id=" + id +
+                ", type=" + type +
+                ", success=" + success +
+                ", userId='" + userId + '\'' +
+                ", username='" + username + '\'' +
+                ", ipAddress='" + ipAddress + '\'' +
+                ", detail='" + detail + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
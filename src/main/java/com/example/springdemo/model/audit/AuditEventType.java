@@ -0,0 +1,16 @@
+package com.example.springdemo.model.audit;
+
+/**
+ * Security-relevant actions recorded in the audit log
+ */
+public enum AuditEventType {
+    SIGNUP,
+    LOGIN,
+    LOGIN_THROTTLED,
+    TOKEN_REFRESH,
+    LOGOUT,
+    LOGOUT_ALL,
+    PASSWORD_RESET_REQUESTED,
+    PASSWORD_RESET,
+    REQUEST_REJECTED
+}
@@ -0,0 +1,114 @@
+package com.example.springdemo.model.auth;
+
+/**
+ * Projection of a {@link User} document holding only what login needs: identity, password hash,
+ * status and the claims that go into the access token. Refresh and reset tokens are never read.
+ */
+public class LoginCredentials {
+
+    private String id;
+    private String username;
+    private String email;
+    private String password;
+    private String fullName;
+    private String role;
+    private boolean enabled;
+    private long tokenVersion;
+
+    // Default constructor
+    public LoginCredentials() {}
+
+    /**
+     * Derive credentials from an already loaded user
+     */
+    public static LoginCredentials from(User user) {
+        LoginCredentials credentials = new LoginCredentials();
+        credentials.id = user.getId();
+        credentials.username = user.getUsername();
+        credentials.email = user.getEmail();
+        credentials.password = user.getPassword();
+        credentials.fullName = user.getFullName();
+        credentials.role = user.getRole();
+        credentials.enabled = user.isEnabled();
+        credentials.tokenVersion = user.getTokenVersion();
+        return credentials;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "LoginCredentials{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", email='" + email + '\'' +
+                ", password='[PROTECTED]'" +
+                ", role='" + role + '\'' +
+                ", enabled=" + enabled +
+                ", tokenVersion=" + tokenVersion +
+                '}';
+    }
+}
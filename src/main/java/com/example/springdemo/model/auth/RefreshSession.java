@@ -0,0 +1,161 @@
+package com.example.springdemo.model.auth;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One signed-in device: the SHA-256 of its current refresh token plus the claims needed to issue
+ * a new access token, so refreshing only checks the account through UserStatusCache instead of
+ * reading the users collection.
+ *
+ * The raw token is never stored. MongoDB deletes the document once expiresAt has passed (TTL index),
+ * and each refresh replaces tokenHash and expiresAt in place. Indexes (unique tokenHash, userId and
+ * the expiresAt TTL) are created by MongoConfig.
+ */
+@Document(collection = "refresh_tokens")
+public class RefreshSession {
+
+    @Id
+    private String id;
+
+    private String tokenHash;
+
+    private String userId;
+
+    private String username;
+    private String email;
+    private String fullName;
+    private String role;
+    private long tokenVersion;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastUsedAt;
+
+    private LocalDateTime expiresAt;
+
+    // Default constructor
+    public RefreshSession() {}
+
+    /**
+     * New session for a user who has just authenticated
+     */
+    public static RefreshSession of(LoginCredentials credentials, String tokenHash, LocalDateTime expiresAt) {
+        RefreshSession session = new RefreshSession();
+        session.tokenHash = tokenHash;
+        session.userId = credentials.getId();
+        session.username = credentials.getUsername();
+        session.email = credentials.getEmail();
+        session.fullName = credentials.getFullName();
+        session.role = credentials.getRole();
+        session.tokenVersion = credentials.getTokenVersion();
+        session.createdAt = LocalDateTime.now();
+        session.lastUsedAt = session.createdAt;
+        session.expiresAt = expiresAt;
+        return session;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(LocalDateTime lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshSession{" +
+                "id=" + id +
+                ", tokenHash='[PROTECTED]'" +
+                ", userId='" + userId + '\'' +
+                ", username='" + username + '\'' +
+                ", role='" + role + '\'' +
+                ", tokenVersion=" + tokenVersion +
+                ", createdAt=" + createdAt +
+                ", lastUsedAt=" + lastUsedAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
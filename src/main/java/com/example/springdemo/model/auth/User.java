@@ -26,9 +26,9 @@ public class User implements UserDetails {
     private String fullName;
     private String role;
     private boolean enabled;
-    private String refreshToken;
     private String passwordResetToken;
     private LocalDateTime passwordResetTokenExpiry;
+    private long tokenVersion;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -49,6 +49,22 @@ public class User implements UserDetails {
         this.fullName = fullName;
     }
 
+    // Copy constructor
+    public User(User other) {
+        this.id = other.id;
+        this.username = other.username;
+        this.email = other.email;
+        this.password = other.password;
+        this.fullName = other.fullName;
+        this.role = other.role;
+        this.enabled = other.enabled;
+        this.passwordResetToken = other.passwordResetToken;
+        this.passwordResetTokenExpiry = other.passwordResetTokenExpiry;
+        this.tokenVersion = other.tokenVersion;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -130,14 +146,6 @@ public class User implements UserDetails {
         this.enabled = enabled;
     }
 
-    public String getRefreshToken() {
-        return refreshToken;
-    }
-
-    public void setRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
-    }
-
     public String getPasswordResetToken() {
         return passwordResetToken;
     }
@@ -154,6 +162,18 @@ public class User implements UserDetails {
         this.passwordResetTokenExpiry = passwordResetTokenExpiry;
     }
 
+    /**
+     * Incremented whenever previously issued access tokens must stop being accepted
+     * (e.g. password reset); carried in the 'ver' claim of access tokens
+     */
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -180,9 +200,9 @@ public class User implements UserDetails {
                 ", fullName='" + fullName + '\'' +
                 ", role='" + role + '\'' +
                 ", enabled=" + enabled +
-                ", refreshToken='[PROTECTED]'" +
                 ", passwordResetToken='[PROTECTED]'" +
                 ", passwordResetTokenExpiry=" + passwordResetTokenExpiry +
+                ", tokenVersion=" + tokenVersion +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -0,0 +1,131 @@
+package com.example.springdemo.model.calculation;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One calculation performed through /api/calculator, kept as history.
+ *
+ * Binary operations carry number1 and number2, expression evaluations carry the expression text.
+ * userId is null for anonymous callers. Records are written behind the request by
+ * CalculationHistoryWriter, so a record may be lost if the node stops abruptly or the buffer overflows.
+ */
+@Document(collection = "calculations")
+public class CalculationRecord {
+
+    @Id
+    private String id;
+
+    private String userId;
+    private String operation;
+    private Double number1;
+    private Double number2;
+    private String expression;
+    private double result;
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public CalculationRecord() {}
+
+    public static CalculationRecord binary(String userId, String operation, double number1, double number2, double result) {
+        CalculationRecord record = new CalculationRecord();
+        record.userId = userId;
+        record.operation = operation;
+        record.number1 = number1;
+        record.number2 = number2;
+        record.result = result;
+        record.createdAt = LocalDateTime.now();
+        return record;
+    }
+
+    public static CalculationRecord expression(String userId, String expression, double result) {
+        CalculationRecord record = new CalculationRecord();
+        record.userId = userId;
+        record.operation = "expression";
+        record.expression = expression;
+        record.result = result;
+        record.createdAt = LocalDateTime.now();
+        return record;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Double getNumber1() {
+        return number1;
+    }
+
+    public void setNumber1(Double number1) {
+        this.number1 = number1;
+    }
+
+    public Double getNumber2() {
+        return number2;
+    }
+
+    public void setNumber2(Double number2) {
+        this.number2 = number2;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
+    public double getResult() {
+        return result;
+    }
+
+    public void setResult(double result) {
+        this.result = result;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CalculationRecord{" +
+                "id=" + id +
+                ", userId='" + userId + '\'' +
+                ", operation='" + operation + '\'' +
+                ", number1=" + number1 +
+                ", number2=" + number2 +
+                ", expression='" + expression + '\'' +
+                ", result=" + result +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.springdemo.model.calculation;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totals of one operation's calculations within one minute.
+ *
+ * The id is "{minute}|{operation}", e.g. "2025-07-13T11:30|addition". Documents are never replaced,
+ * only upserted with $inc on the counters and sums and $min/$max on the extremes, so the rollup
+ * is correct however many flushes contribute to it. number1Sum and number2Sum only include binary
+ * operations; expression evaluations add to count and the result fields.
+ */
+@Document(collection = "calculation_rollups")
+public class CalculationRollup {
+
+    @Id
+    private String id;
+
+    private LocalDateTime minute;
+    private String operation;
+    private long count;
+    private double number1Sum;
+    private double number2Sum;
+    private double resultSum;
+    private Double resultMin;
+    private Double resultMax;
+
+    // Default constructor
+    public CalculationRollup() {}
+
+    /**
+     * Document id of the rollup for an operation within a minute
+     */
+    public static String idOf(LocalDateTime minute, String operation) {
+        return minute + "|" + operation;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getMinute() {
+        return minute;
+    }
+
+    public void setMinute(LocalDateTime minute) {
+        this.minute = minute;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getNumber1Sum() {
+        return number1Sum;
+    }
+
+    public void setNumber1Sum(double number1Sum) {
+        this.number1Sum = number1Sum;
+    }
+
+    public double getNumber2Sum() {
+        return number2Sum;
+    }
+
+    public void setNumber2Sum(double number2Sum) {
+        this.number2Sum = number2Sum;
+    }
+
+    public double getResultSum() {
+        return resultSum;
+    }
+
+    public void setResultSum(double resultSum) {
+        this.resultSum = resultSum;
+    }
+
+    public Double getResultMin() {
+        return resultMin;
+    }
+
+    public void setResultMin(Double resultMin) {
+        this.resultMin = resultMin;
+    }
+
+    public Double getResultMax() {
+        return resultMax;
+    }
+
+    public void setResultMax(Double resultMax) {
+        this.resultMax = resultMax;
+    }
+
+    @Override
+    public String toString() {
+        return "CalculationRollup{" +
+                "id='" + id + '\'' +
+                ", count=" + count +
+                ", resultSum=" + resultSum +
+                ", resultMin=" + resultMin +
+                ", resultMax=" + resultMax +
+                '}';
+    }
+}
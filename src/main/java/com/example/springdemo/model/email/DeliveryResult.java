@@ -0,0 +1,13 @@
+package com.example.springdemo.model.email;
+
+/**
+ * Outcome of handing one message to the email provider
+ */
+public enum DeliveryResult {
+    /** Accepted by the provider */
+    SENT,
+    /** Not sent for a reason that may pass (outage, timeout, throttling); try again later */
+    RETRY,
+    /** Refused by the provider as invalid (e.g. a malformed recipient); retrying cannot succeed */
+    REJECTED
+}
@@ -0,0 +1,91 @@
+package com.example.springdemo.model.email;
+
+/**
+ * A transactional email to send, described by its type and template parameters rather than its
+ * rendered content, so it can be stored in the outbox and rendered by whichever EmailService is active
+ */
+public class EmailMessage {
+
+    public enum Type {
+        WELCOME,
+        PASSWORD_RESET
+    }
+
+    private Type type;
+    private String toEmail;
+    private String username;
+    private String resetToken;
+    private String resetUrl;
+
+    // Default constructor
+    public EmailMessage() {}
+
+    public static EmailMessage welcome(String toEmail, String username) {
+        EmailMessage message = new EmailMessage();
+        message.type = Type.WELCOME;
+        message.toEmail = toEmail;
+        message.username = username;
+        return message;
+    }
+
+    public static EmailMessage passwordReset(String toEmail, String username, String resetToken, String resetUrl) {
+        EmailMessage message = new EmailMessage();
+        message.type = Type.PASSWORD_RESET;
+        message.toEmail = toEmail;
+        message.username = username;
+        message.resetToken = resetToken;
+        message.resetUrl = resetUrl;
+        return message;
+    }
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getResetToken() {
+        return resetToken;
+    }
+
+    public void setResetToken(String resetToken) {
+        this.resetToken = resetToken;
+    }
+
+    public String getResetUrl() {
+        return resetUrl;
+    }
+
+    public void setResetUrl(String resetUrl) {
+        this.resetUrl = resetUrl;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailMessage{" +
+                "type=" + type +
+                ", toEmail='" + toEmail + '\'' +
+                ", username='" + username + '\'' +
+                ", resetToken='[PROTECTED]'" +
+                '}';
+    }
+}
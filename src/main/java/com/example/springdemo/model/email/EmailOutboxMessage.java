@@ -0,0 +1,120 @@
+package com.example.springdemo.model.email;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting in the outbox, with its delivery state.
+ *
+ * A message is due once nextAttemptAt has passed. Claiming a batch pushes nextAttemptAt forward by
+ * the lease and stamps claimId, so a worker that dies mid-send simply lets the lease run out.
+ * Sent messages are deleted; messages that exhaust their attempts are kept with status DEAD.
+ */
+@Document(collection = "email_outbox")
+public class EmailOutboxMessage {
+
+    public enum Status {
+        PENDING,
+        DEAD
+    }
+
+    @Id
+    private String id;
+
+    private EmailMessage message;
+    private Status status;
+    private int attempts;
+    private String claimId;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+
+    // Default constructor
+    public EmailOutboxMessage() {}
+
+    public EmailOutboxMessage(EmailMessage message) {
+        this.message = message;
+        this.status = Status.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public EmailMessage getMessage() {
+        return message;
+    }
+
+    public void setMessage(EmailMessage message) {
+        this.message = message;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getClaimId() {
+        return claimId;
+    }
+
+    public void setClaimId(String claimId) {
+        this.claimId = claimId;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailOutboxMessage{" +
+                "id=" + id +
+                ", message=" + message +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", createdAt=" + createdAt +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.email.EmailOutboxMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutboxMessage, String> {
+}
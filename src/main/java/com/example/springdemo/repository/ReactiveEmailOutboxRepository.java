@@ -0,0 +1,12 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.email.EmailOutboxMessage;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Non-blocking counterpart of {@link EmailOutboxRepository} used by the 'reactive' profile
+ */
+@Repository
+public interface ReactiveEmailOutboxRepository extends ReactiveMongoRepository<EmailOutboxMessage, String> {
+}
@@ -0,0 +1,28 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.RefreshSession;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link RefreshSessionRepository} used by the 'reactive' profile
+ */
+@Repository
+public interface ReactiveRefreshSessionRepository extends ReactiveMongoRepository<RefreshSession, String>, ReactiveRefreshSessionRepositoryCustom {
+
+    /**
+     * Find the session of a refresh token by its hash
+     */
+    Mono<RefreshSession> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoke one session by its refresh token hash
+     */
+    Mono<Long> deleteByTokenHash(String tokenHash);
+
+    /**
+     * Revoke every session of a user
+     */
+    Mono<Long> deleteByUserId(String userId);
+}
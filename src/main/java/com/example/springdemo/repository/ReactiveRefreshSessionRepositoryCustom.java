@@ -0,0 +1,18 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.RefreshSession;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link RefreshSessionRepositoryCustom}
+ */
+public interface ReactiveRefreshSessionRepositoryCustom {
+
+    /**
+     * @see RefreshSessionRepositoryCustom#rotate(String, String, LocalDateTime)
+     * @return the updated session, or empty if the token is unknown, already rotated or expired
+     */
+    Mono<RefreshSession> rotate(String currentTokenHash, String newTokenHash, LocalDateTime newExpiresAt);
+}
@@ -0,0 +1,35 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.RefreshSession;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class ReactiveRefreshSessionRepositoryCustomImpl implements ReactiveRefreshSessionRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    ReactiveRefreshSessionRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<RefreshSession> rotate(String currentTokenHash, String newTokenHash, LocalDateTime newExpiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        // The TTL monitor only runs once a minute, so expiry is enforced here as well
+        Query query = Query.query(where("tokenHash").is(currentTokenHash).and("expiresAt").gt(now));
+        Update update = new Update()
+                .set("tokenHash", newTokenHash)
+                .set("expiresAt", newExpiresAt)
+                .set("lastUsedAt", now);
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, RefreshSession.class);
+    }
+}
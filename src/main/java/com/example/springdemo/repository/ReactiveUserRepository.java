@@ -0,0 +1,44 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.LoginCredentials;
+import com.example.springdemo.model.auth.User;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserRepository} used by the 'reactive' profile
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String>, ReactiveUserRepositoryCustom {
+
+    /**
+     * Find user by username
+     */
+    Mono<User> findByUsername(String username);
+
+    /**
+     * Find user by email
+     */
+    Mono<User> findByEmail(String email);
+
+    /**
+     * Find login credentials by username or email in a single projected query
+     * @see UserRepository#findLoginCredentials(String)
+     */
+    @Query(value = "{'$or': [{'username': ?0}, {'email': ?0}]}",
+           fields = "{'username': 1, 'email': 1, 'password': 1, 'fullName': 1, 'role': 1, 'enabled': 1, 'tokenVersion': 1}")
+    Flux<LoginCredentials> findLoginCredentials(String usernameOrEmail);
+
+    /**
+     * Check if user exists by username
+     */
+    Mono<Boolean> existsByUsername(String username);
+
+    /**
+     * Check if user exists by email
+     */
+    Mono<Boolean> existsByEmail(String email);
+}
@@ -0,0 +1,23 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.User;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link UserRepositoryCustom}
+ */
+public interface ReactiveUserRepositoryCustom {
+
+    /**
+     * @see UserRepositoryCustom#updatePasswordResetToken(String, String, LocalDateTime)
+     */
+    Mono<Boolean> updatePasswordResetToken(String userId, String resetToken, LocalDateTime expiry);
+
+    /**
+     * @see UserRepositoryCustom#resetPassword(String, String, String)
+     * @return the updated user, or empty if the token is not current or has expired
+     */
+    Mono<User> resetPassword(String email, String resetToken, String encodedPassword);
+}
@@ -0,0 +1,49 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.User;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class ReactiveUserRepositoryCustomImpl implements ReactiveUserRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    ReactiveUserRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Boolean> updatePasswordResetToken(String userId, String resetToken, LocalDateTime expiry) {
+        Update update = new Update()
+                .set("passwordResetToken", resetToken)
+                .set("passwordResetTokenExpiry", expiry)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(Query.query(where("id").is(userId)), update, User.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<User> resetPassword(String email, String resetToken, String encodedPassword) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(where("email").is(email)
+                .and("passwordResetToken").is(resetToken)
+                .and("passwordResetTokenExpiry").gt(now)
+                .and("enabled").ne(false));
+        Update update = new Update()
+                .set("password", encodedPassword)
+                .unset("passwordResetToken")
+                .unset("passwordResetTokenExpiry")
+                .inc("tokenVersion", 1)
+                .set("updatedAt", now);
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, User.class);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.RefreshSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RefreshSessionRepository extends MongoRepository<RefreshSession, String>, RefreshSessionRepositoryCustom {
+
+    /**
+     * Find the session of a refresh token by its hash
+     */
+    Optional<RefreshSession> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoke one session by its refresh token hash
+     * @return number of sessions removed (0 or 1)
+     */
+    long deleteByTokenHash(String tokenHash);
+
+    /**
+     * Revoke every session of a user
+     * @return number of sessions removed
+     */
+    long deleteByUserId(String userId);
+}
@@ -0,0 +1,18 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.RefreshSession;
+
+import java.time.LocalDateTime;
+
+/**
+ * Atomic refresh token rotation
+ */
+public interface RefreshSessionRepositoryCustom {
+
+    /**
+     * Replace the token hash of an unexpired session in one find-and-modify, so a refresh token can
+     * only be exchanged once even under concurrent requests
+     * @return the updated session, or null if the token is unknown, already rotated or expired
+     */
+    RefreshSession rotate(String currentTokenHash, String newTokenHash, LocalDateTime newExpiresAt);
+}
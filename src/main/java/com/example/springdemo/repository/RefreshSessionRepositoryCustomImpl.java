@@ -0,0 +1,34 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.RefreshSession;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class RefreshSessionRepositoryCustomImpl implements RefreshSessionRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    RefreshSessionRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public RefreshSession rotate(String currentTokenHash, String newTokenHash, LocalDateTime newExpiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        // The TTL monitor only runs once a minute, so expiry is enforced here as well
+        Query query = Query.query(where("tokenHash").is(currentTokenHash).and("expiresAt").gt(now));
+        Update update = new Update()
+                .set("tokenHash", newTokenHash)
+                .set("expiresAt", newExpiresAt)
+                .set("lastUsedAt", now);
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, RefreshSession.class);
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.springdemo.repository;
 
+import com.example.springdemo.model.auth.LoginCredentials;
 import com.example.springdemo.model.auth.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     /**
      * Find user by username
@@ -36,6 +38,15 @@ public interface UserRepository extends MongoRepository<User, String> {
     @Query("{'$or': [{'username': ?0}, {'email': ?1}]}")
     Optional<User> findByUsernameOrEmail(String username, String email);
     
+    /**
+     * Find login credentials by username or email in a single query, reading only the fields login needs.
+     * Both the username and email indexes serve the $or, so this is one round trip either way.
+     * Returns two documents in the rare case one user's email is another user's username.
+     */
+    @Query(value = "{'$or': [{'username': ?0}, {'email': ?0}]}",
+           fields = "{'username': 1, 'email': 1, 'password': 1, 'fullName': 1, 'role': 1, 'enabled': 1, 'tokenVersion': 1}")
+    List<LoginCredentials> findLoginCredentials(String usernameOrEmail);
+    
     /**
      * Check if user exists by username or email
      */
@@ -0,0 +1,26 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Targeted updates on users that do not need the whole document read first.
+ * Each is a single $set/$unset (or find-and-modify where the outcome depends on the current token),
+ * so concurrent requests cannot overwrite each other's changes.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Store a password reset token and its expiry with a single $set
+     * @return true if the user exists
+     */
+    boolean updatePasswordResetToken(String userId, String resetToken, LocalDateTime expiry);
+
+    /**
+     * Atomically consume an unexpired reset token: set the new password, drop the reset token
+     * and increment the token version so previously issued access tokens stop working
+     * @return the updated user, or null if the token is not current or has expired
+     */
+    User resetPassword(String email, String resetToken, String encodedPassword);
+}
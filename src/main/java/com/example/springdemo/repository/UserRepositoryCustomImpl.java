@@ -0,0 +1,47 @@
+package com.example.springdemo.repository;
+
+import com.example.springdemo.model.auth.User;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean updatePasswordResetToken(String userId, String resetToken, LocalDateTime expiry) {
+        Update update = new Update()
+                .set("passwordResetToken", resetToken)
+                .set("passwordResetTokenExpiry", expiry)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(Query.query(where("id").is(userId)), update, User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public User resetPassword(String email, String resetToken, String encodedPassword) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(where("email").is(email)
+                .and("passwordResetToken").is(resetToken)
+                .and("passwordResetTokenExpiry").gt(now)
+                .and("enabled").ne(false));
+        Update update = new Update()
+                .set("password", encodedPassword)
+                .unset("passwordResetToken")
+                .unset("passwordResetTokenExpiry")
+                .inc("tokenVersion", 1)
+                .set("updatedAt", now);
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, User.class);
+    }
+}
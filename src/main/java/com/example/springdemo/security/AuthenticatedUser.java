@@ -0,0 +1,54 @@
+package com.example.springdemo.security;
+
+import java.security.Principal;
+
+/**
+ * Principal of a request authenticated by {@link JwtAuthenticationFilter}, built from signed
+ * access-token claims only (no database lookup)
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final String id;
+    private final String username;
+    private final String role;
+    private final long tokenVersion;
+
+    public AuthenticatedUser(String id, String username, String role, long tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{" +
+                "id='" + id + '\'' +
+                ", username='" + username + '\'' +
+                ", role='" + role + '\'' +
+                ", tokenVersion=" + tokenVersion +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springdemo.security;
+
+import com.example.springdemo.service.auth.JwtService;
+import com.example.springdemo.service.auth.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer &lt;access token&gt;".
+ *
+ * The token is verified through {@link VerifiedTokenCache} and the {@link AuthenticatedUser} principal
+ * is built from its signed claims (subject, uid, role, ver), so the common case needs no database
+ * access at all. Tokens older than the staleness bound are rechecked via {@link UserStatusCache}.
+ * Requests with a missing or invalid token continue unauthenticated and are rejected by the
+ * authorization rules if the endpoint is protected.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserStatusCache userStatusCache;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, UserStatusCache userStatusCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userStatusCache = userStatusCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = authenticate(header.substring(BEARER_PREFIX.length()));
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole())));
+                authentication.setDetails(detailsSource.buildDetails(request));
+
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * @return the principal described by a valid, current access token, or null
+     */
+    private AuthenticatedUser authenticate(String token) {
+        Claims claims = verifiedTokenCache.verify(token);
+        if (claims == null || !JwtService.TOKEN_TYPE_ACCESS.equals(claims.get(JwtService.CLAIM_TYPE, String.class))) {
+            logger.debug("Rejected bearer token: invalid, expired or not an access token");
+            return null;
+        }
+
+        Long tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Long.class);
+        AuthenticatedUser principal = new AuthenticatedUser(
+                claims.get(JwtService.CLAIM_USER_ID, String.class),
+                claims.getSubject(),
+                claims.get(JwtService.CLAIM_ROLE, String.class),
+                tokenVersion != null ? tokenVersion : 0);
+
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt != null && userStatusCache.isStale(issuedAt.getTime()) && !userStatusCache.isCurrent(principal)) {
+            logger.debug("Rejected bearer token for {}: user disabled or token version superseded", principal.getUsername());
+            return null;
+        }
+        return principal;
+    }
+}
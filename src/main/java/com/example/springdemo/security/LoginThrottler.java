@@ -0,0 +1,121 @@
+package com.example.springdemo.security;
+
+import com.example.springdemo.exception.LoginThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory login rate limiter keyed by account (username or email) and by client address.
+ *
+ * Each key holds a single AtomicLong "theoretical arrival time" (GCRA, equivalent to a token bucket
+ * with rate and burst) updated with a CAS loop, so checks never take a lock. Buckets live in
+ * bounded caches and expire once idle for longer than it takes them to refill, which keeps memory
+ * bounded under credential-stuffing bursts from many addresses. Callers check before any user lookup
+ * or password verification; rejections are counted in auth.login.throttled{key}.
+ */
+@Component
+public class LoginThrottler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottler.class);
+    private static final int MAX_ACCOUNT_KEY_LENGTH = 256;
+    private static final String THROTTLED_MESSAGE = "Too many login attempts, please retry later";
+
+    private final boolean enabled;
+    private final Limiter accountLimiter;
+    private final Limiter addressLimiter;
+
+    public LoginThrottler(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.login-throttle.enabled:true}") boolean enabled,
+            @Value("${app.auth.login-throttle.account.per-minute:10}") int accountPerMinute,
+            @Value("${app.auth.login-throttle.account.burst:5}") int accountBurst,
+            @Value("${app.auth.login-throttle.ip.per-minute:60}") int ipPerMinute,
+            @Value("${app.auth.login-throttle.ip.burst:20}") int ipBurst,
+            @Value("${app.auth.login-throttle.maximum-keys:100000}") long maximumKeys) {
+        this.enabled = enabled;
+        this.accountLimiter = new Limiter("account", accountPerMinute, accountBurst, maximumKeys, meterRegistry);
+        this.addressLimiter = new Limiter("ip", ipPerMinute, ipBurst, maximumKeys, meterRegistry);
+    }
+
+    /**
+     * Record a login attempt, rejecting it if the client address or the account is over its rate
+     * @throws LoginThrottledException if the attempt must not be processed
+     */
+    public void checkLogin(String usernameOrEmail, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+
+        if (clientAddress != null) {
+            addressLimiter.acquire(clientAddress);
+        }
+        if (usernameOrEmail != null) {
+            String account = usernameOrEmail.trim().toLowerCase(Locale.ROOT);
+            if (account.length() > MAX_ACCOUNT_KEY_LENGTH) {
+                account = account.substring(0, MAX_ACCOUNT_KEY_LENGTH);
+            }
+            accountLimiter.acquire(account);
+        }
+    }
+
+    /**
+     * GCRA limiter over a bounded cache of per-key arrival times
+     */
+    private static final class Limiter {
+
+        private final String name;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter rejections;
+
+        Limiter(String name, int perMinute, int burst, long maximumKeys, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+            // An idle bucket is back to a full burst after burstTolerance; dropping it then loses nothing
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(Duration.ofNanos(burstToleranceNanos))
+                    .build();
+            this.rejections = Counter.builder("auth.login.throttled")
+                    .description("Login attempts rejected by the in-memory throttle")
+                    .tag("key", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.throttle.buckets", buckets, Cache::estimatedSize)
+                    .description("Login throttle buckets currently tracked")
+                    .tag("key", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            long now = System.nanoTime();
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + emissionIntervalNanos;
+                long excess = next - now - burstToleranceNanos;
+                if (excess > 0) {
+                    rejections.increment();
+                    logger.debug("Login throttled by {} limit", name);
+                    throw new LoginThrottledException(THROTTLED_MESSAGE, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(excess) + 1));
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+    }
+}
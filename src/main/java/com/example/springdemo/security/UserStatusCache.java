@@ -0,0 +1,88 @@
+package com.example.springdemo.security;
+
+import com.example.springdemo.model.auth.User;
+import com.example.springdemo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Staleness bound for claim-based authentication.
+ *
+ * Access tokens older than app.auth.jwt.staleness-bound are rechecked against {@link UserRepository}:
+ * the user must still exist, be enabled and have the token version carried by the token. The current
+ * version is cached per user for the same bound, so each user costs at most one read per bound no
+ * matter how many requests they send. A bound of zero disables rechecks entirely.
+ */
+@Component
+public class UserStatusCache {
+
+    private static final String CACHE_NAME = "userStatus";
+    private static final long DISABLED = -1;
+
+    private final UserRepository userRepository;
+    private final Duration stalenessBound;
+    private final Cache<String, Long> currentVersions;
+
+    public UserStatusCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.jwt.staleness-bound:5m}") Duration stalenessBound,
+            @Value("${app.auth.jwt.staleness-cache.maximum-size:10000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.stalenessBound = stalenessBound;
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(stalenessBound.isZero() ? Duration.ofMinutes(1) : stalenessBound)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, currentVersions, CACHE_NAME);
+    }
+
+    /**
+     * Whether a token issued at the given time must be rechecked against the database
+     */
+    public boolean isStale(long issuedAtMillis) {
+        return !stalenessBound.isZero() && System.currentTimeMillis() - issuedAtMillis > stalenessBound.toMillis();
+    }
+
+    /**
+     * Whether the user behind a token is still enabled and the token version is still current
+     */
+    public boolean isCurrent(AuthenticatedUser principal) {
+        return isCurrent(principal.getId(), principal.getTokenVersion());
+    }
+
+    /**
+     * Whether a user is still enabled and still at the given token version
+     */
+    public boolean isCurrent(String userId, long tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        long currentVersion = currentVersions.get(userId, this::loadVersion);
+        return currentVersion != DISABLED && currentVersion == tokenVersion;
+    }
+
+    /**
+     * Forget the cached status of a user after it changed on this node (e.g. password reset)
+     */
+    public void invalidate(String userId) {
+        if (userId != null) {
+            currentVersions.invalidate(userId);
+        }
+    }
+
+    private Long loadVersion(String userId) {
+        return userRepository.findById(userId)
+                .filter(User::isEnabled)
+                .map(User::getTokenVersion)
+                .orElse(DISABLED);
+    }
+}
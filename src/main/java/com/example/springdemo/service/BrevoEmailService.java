@@ -1,28 +1,59 @@
 package com.example.springdemo.service;
 
+import com.example.springdemo.model.email.DeliveryResult;
+import com.example.springdemo.model.email.EmailMessage;
+import com.example.springdemo.service.email.EmailTemplates;
+import com.example.springdemo.service.email.RenderedEmail;
+import com.example.springdemo.exception.ServiceOverloadedException;
+import com.example.springdemo.util.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Production EmailService implementation using Brevo (Sendinblue) REST API
  * This service is only active when the 'production' profile is enabled
+ *
+ * Calls go through a dedicated Reactor Netty connection pool with connect, response and overall
+ * timeouts, a {@link CircuitBreaker} that stops calling a failing provider for a while, and a
+ * bulkhead bounding concurrent requests. Calls rejected by either fail immediately with
+ * {@link ServiceOverloadedException}, which the outbox treats like any other failed send.
+ * A message Brevo refuses as invalid (400 or 422) is reported as REJECTED rather than retried; any other
+ * error, including 401/403 for a revoked key or non-allowlisted IP, is retried and counts against the circuit.
+ * Exported as email.provider.circuit.state (0 closed, 1 half open, 2 open), email.provider.in.flight,
+ * email.provider.rejected{reason} and email.provider.requests{outcome}.
  */
 @Service
 @Profile("production")
 public class BrevoEmailService implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(BrevoEmailService.class);
-    private static final String BREVO_API_URL = "https://api.brevo.com/v3/smtp/email";
 
     @Value("${brevo.api.key}")
     private String brevoApiKey;
@@ -34,212 +65,250 @@ public class BrevoEmailService implements EmailService {
     private String senderName;
 
     private final WebClient webClient;
+    private final EmailTemplates emailTemplates;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Duration requestTimeout;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+    private final Timer succeeded;
+    private final Timer failed;
+
+    public BrevoEmailService(
+            EmailTemplates emailTemplates,
+            MeterRegistry meterRegistry,
+            @Value("${brevo.api.url:https://api.brevo.com/v3/smtp/email}") String apiUrl,
+            @Value("${brevo.client.max-connections:50}") int maxConnections,
+            @Value("${brevo.client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${brevo.client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${brevo.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${brevo.client.response-timeout:10s}") Duration responseTimeout,
+            @Value("${brevo.client.request-timeout:15s}") Duration requestTimeout,
+            @Value("${brevo.client.max-in-flight:20}") int maxInFlight,
+            @Value("${brevo.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${brevo.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.emailTemplates = emailTemplates;
+        this.requestTimeout = requestTimeout;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.bulkhead = new Semaphore(maxInFlight);
+
+        // Requests beyond the bulkhead never reach the pool, so its acquire queue only absorbs short bursts
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("brevo")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxInFlight)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
 
-    public BrevoEmailService() {
         this.webClient = WebClient.builder()
-                .baseUrl(BREVO_API_URL)
+                .baseUrl(apiUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
+
+        Gauge.builder("email.provider.circuit.state", circuitBreaker, cb -> switch (cb.getState()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .description("Email provider circuit: 0 closed, 1 half open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder("email.provider.in.flight", bulkhead, b -> maxInFlight - b.availablePermits())
+                .description("Requests to the email provider currently in flight")
+                .register(meterRegistry);
+        this.circuitOpenRejections = rejections(meterRegistry, "circuit_open");
+        this.bulkheadFullRejections = rejections(meterRegistry, "bulkhead_full");
+        this.succeeded = requests(meterRegistry, "success");
+        this.failed = requests(meterRegistry, "failure");
     }
 
     @Override
     public boolean sendPasswordResetEmail(String toEmail, String username, String resetToken, String resetUrl) {
-        try {
-            String subject = "Password Reset Request";
-            String htmlContent = createPasswordResetEmailHtml(username, resetToken, resetUrl);
-            String textContent = createPasswordResetEmailText(username, resetToken, resetUrl);
-
-            Map<String, Object> emailRequest = Map.of(
-                "sender", Map.of("email", senderEmail, "name", senderName),
-                "to", List.of(Map.of("email", toEmail)),
-                "subject", subject,
-                "htmlContent", htmlContent,
-                "textContent", textContent
-            );
-
-            Mono<String> response = webClient.post()
-                    .header("api-key", brevoApiKey)
-                    .bodyValue(emailRequest)
-                    .retrieve()
-                    .bodyToMono(String.class);
+        return Boolean.TRUE.equals(sendPasswordResetEmailAsync(toEmail, username, resetToken, resetUrl).block());
+    }
 
-            response.block(); // Block for synchronous operation
-            logger.info("Password reset email sent successfully to: {}", toEmail);
-            return true;
+    @Override
+    public boolean sendWelcomeEmail(String toEmail, String username) {
+        return Boolean.TRUE.equals(sendWelcomeEmailAsync(toEmail, username).block());
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to {}: {}", toEmail, e.getMessage(), e);
-            return false;
-        }
+    @Override
+    public Mono<Boolean> sendPasswordResetEmailAsync(String toEmail, String username, String resetToken, String resetUrl) {
+        return Mono.defer(() -> send(toEmail, emailTemplates.passwordReset(username, resetUrl)))
+                .doOnNext(sent -> logger.info("Password reset email sent successfully to: {}", toEmail))
+                .onErrorResume(e -> {
+                    logFailure("password reset", toEmail, e);
+                    return Mono.just(false);
+                });
     }
 
     @Override
-    public boolean sendWelcomeEmail(String toEmail, String username) {
-        try {
-            String subject = "Welcome to Spring Demo!";
-            String htmlContent = createWelcomeEmailHtml(username);
-            String textContent = createWelcomeEmailText(username);
-
-            Map<String, Object> emailRequest = Map.of(
-                "sender", Map.of("email", senderEmail, "name", senderName),
-                "to", List.of(Map.of("email", toEmail)),
-                "subject", subject,
-                "htmlContent", htmlContent,
-                "textContent", textContent
-            );
-
-            Mono<String> response = webClient.post()
-                    .header("api-key", brevoApiKey)
-                    .bodyValue(emailRequest)
-                    .retrieve()
-                    .bodyToMono(String.class);
+    public Mono<Boolean> sendWelcomeEmailAsync(String toEmail, String username) {
+        return Mono.defer(() -> send(toEmail, emailTemplates.welcome(username)))
+                .doOnNext(sent -> logger.info("Welcome email sent successfully to: {}", toEmail))
+                .onErrorResume(e -> {
+                    logFailure("welcome", toEmail, e);
+                    return Mono.just(false);
+                });
+    }
 
-            response.block(); // Block for synchronous operation
-            logger.info("Welcome email sent successfully to: {}", toEmail);
-            return true;
+    /**
+     * Send the whole batch in one Brevo request, one message version per email.
+     * The request is accepted or rejected as a whole. If Brevo rejects it as invalid, usually because of
+     * a single bad recipient, the messages are sent one by one so only the offending ones are reported
+     * as REJECTED, stopping at the deadline. Any other failure is left to the caller to retry as a whole
+     */
+    @Override
+    public Flux<DeliveryResult> sendBatch(List<EmailMessage> messages, Instant deadline) {
+        if (messages.isEmpty()) {
+            return Flux.empty();
+        }
+        if (messages.size() == 1) {
+            return sendEach(messages, deadline);
+        }
 
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to {}: {}", toEmail, e.getMessage(), e);
-            return false;
+        List<RenderedEmail> contents = messages.stream().map(emailTemplates::render).toList();
+        List<Map<String, Object>> versions = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            RenderedEmail content = contents.get(i);
+            versions.add(Map.of(
+                "to", List.of(Map.of("email", messages.get(i).getToEmail())),
+                "subject", content.subject(),
+                "htmlContent", content.html(),
+                "textContent", content.text()
+            ));
         }
+
+        // Top-level content is required by the API and overridden by every version
+        RenderedEmail first = contents.get(0);
+        Map<String, Object> batchRequest = Map.of(
+            "sender", Map.of("email", senderEmail, "name", senderName),
+            "subject", first.subject(),
+            "htmlContent", first.html(),
+            "messageVersions", versions
+        );
+
+        return post(batchRequest)
+                .doOnSuccess(response -> logger.info("Batch of {} emails sent successfully", messages.size()))
+                .thenMany(Flux.fromIterable(Collections.nCopies(messages.size(), DeliveryResult.SENT)))
+                .onErrorResume(BrevoEmailService::isRejected, e -> {
+                    logger.warn("Batch of {} emails rejected by Brevo, sending them one by one: {}", messages.size(), e.getMessage());
+                    return sendEach(messages, deadline);
+                });
     }
 
     /**
-     * Create HTML content for password reset email
+     * Send messages one request at a time, classifying each failure; messages reached after the
+     * deadline are not sent and reported as RETRY
      */
-    private String createPasswordResetEmailHtml(String username, String resetToken, String resetUrl) {
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="utf-8">
-                <title>Password Reset Request</title>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background-color: #f8f9fa; padding: 20px; text-align: center; border-radius: 5px; }
-                    .content { padding: 20px; }
-                    .button { display: inline-block; padding: 12px 24px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
-                    .footer { margin-top: 30px; padding-top: 20px; border-top: 1px solid #eee; font-size: 12px; color: #666; }
-                    .token { background-color: #f8f9fa; padding: 10px; border-radius: 3px; font-family: monospace; word-break: break-all; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h2>Password Reset Request</h2>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>We received a request to reset your password. If you didn't make this request, you can safely ignore this email.</p>
-                        <p>To reset your password, click the button below:</p>
-                        <p style="text-align: center;">
-                            <a href="%s" class="button">Reset Password</a>
-                        </p>
-                        <p>Or copy and paste this link into your browser:</p>
-                        <div class="token">%s</div>
-                        <p><strong>This link will expire in 1 hour for security reasons.</strong></p>
-                        <p>If you have any questions, please contact our support team.</p>
-                    </div>
-                    <div class="footer">
-                        <p>This is an automated message, please do not reply to this email.</p>
-                        <p>&copy; 2024 Spring Demo. All rights reserved.</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, username, resetUrl, resetUrl);
+    private Flux<DeliveryResult> sendEach(List<EmailMessage> messages, Instant deadline) {
+        return Flux.fromIterable(messages)
+                .concatMap(message -> {
+                    if (!Instant.now().isBefore(deadline)) {
+                        return Mono.just(DeliveryResult.RETRY);
+                    }
+                    return Mono.defer(() -> send(message.getToEmail(), emailTemplates.render(message)))
+                            .map(sent -> DeliveryResult.SENT)
+                            .onErrorResume(e -> {
+                                logFailure(message.getType().name().toLowerCase().replace('_', ' '), message.getToEmail(), e);
+                                return Mono.just(isRejected(e) ? DeliveryResult.REJECTED : DeliveryResult.RETRY);
+                            });
+                });
     }
 
     /**
-     * Create text content for password reset email
+     * Post a message to the Brevo API; completes with true once the provider accepted it
      */
-    private String createPasswordResetEmailText(String username, String resetToken, String resetUrl) {
-        return String.format("""
-            Password Reset Request
-            
-            Hello %s,
-            
-            We received a request to reset your password. If you didn't make this request, you can safely ignore this email.
-            
-            To reset your password, visit the following link:
-            %s
-            
-            This link will expire in 1 hour for security reasons.
-            
-            If you have any questions, please contact our support team.
-            
-            This is an automated message, please do not reply to this email.
-            
-            © 2024 Spring Demo. All rights reserved.
-            """, username, resetUrl);
+    private Mono<Boolean> send(String toEmail, RenderedEmail content) {
+        Map<String, Object> emailRequest = Map.of(
+            "sender", Map.of("email", senderEmail, "name", senderName),
+            "to", List.of(Map.of("email", toEmail)),
+            "subject", content.subject(),
+            "htmlContent", content.html(),
+            "textContent", content.text()
+        );
+
+        return post(emailRequest).thenReturn(true);
     }
 
     /**
-     * Create HTML content for welcome email
+     * POST a request body to the Brevo API behind the bulkhead and circuit breaker.
+     * Validation errors mean the request itself was bad and do not count against the provider
      */
-    private String createWelcomeEmailHtml(String username) {
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="utf-8">
-                <title>Welcome to Spring Demo!</title>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background-color: #28a745; color: white; padding: 20px; text-align: center; border-radius: 5px; }
-                    .content { padding: 20px; }
-                    .footer { margin-top: 30px; padding-top: 20px; border-top: 1px solid #eee; font-size: 12px; color: #666; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h2>Welcome to Spring Demo!</h2>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>Welcome to Spring Demo! Your account has been successfully created.</p>
-                        <p>You can now:</p>
-                        <ul>
-                            <li>Log in to your account</li>
-                            <li>Use our calculator API</li>
-                            <li>Manage your profile</li>
-                        </ul>
-                        <p>If you have any questions, feel free to contact our support team.</p>
-                        <p>Thank you for choosing Spring Demo!</p>
-                    </div>
-                    <div class="footer">
-                        <p>&copy; 2024 Spring Demo. All rights reserved.</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, username);
+    private Mono<Void> post(Map<String, Object> body) {
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquire()) {
+                bulkheadFullRejections.increment();
+                return Mono.error(new ServiceOverloadedException("Too many concurrent email provider requests", 1));
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                bulkhead.release();
+                circuitOpenRejections.increment();
+                return Mono.error(new ServiceOverloadedException("Email provider circuit is open",
+                        Math.max(1, circuitBreaker.getRemainingOpenTime().toSeconds())));
+            }
+
+            long start = System.nanoTime();
+            return webClient.post()
+                    .header("api-key", brevoApiKey)
+                    .bodyValue(body)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(requestTimeout)
+                    .doOnSuccess(response -> {
+                        circuitBreaker.onSuccess();
+                        succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    })
+                    .doOnError(e -> {
+                        if (isRejected(e)) {
+                            circuitBreaker.onSuccess();
+                        } else {
+                            circuitBreaker.onFailure();
+                        }
+                        failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    })
+                    // A caller that gives up waiting is treated as a timed out call
+                    .doOnCancel(circuitBreaker::onFailure)
+                    .doFinally(signal -> bulkhead.release())
+                    .then();
+        });
     }
 
     /**
-     * Create text content for welcome email
+     * Whether Brevo refused the request content as invalid (400 or 422), so sending it again cannot succeed.
+     * Other client errors such as 401/403 (bad key or IP), 404 or 408 are about the account or the call
+     * and are retried
      */
-    private String createWelcomeEmailText(String username) {
-        return String.format("""
-            Welcome to Spring Demo!
-            
-            Hello %s,
-            
-            Welcome to Spring Demo! Your account has been successfully created.
-            
-            You can now:
-            - Log in to your account
-            - Use our calculator API
-            - Manage your profile
-            
-            If you have any questions, feel free to contact our support team.
-            
-            Thank you for choosing Spring Demo!
-            
-            © 2024 Spring Demo. All rights reserved.
-            """, username);
+    private static boolean isRejected(Throwable e) {
+        return e instanceof WebClientResponseException response
+                && (response.getStatusCode() == HttpStatus.BAD_REQUEST
+                    || response.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    private static void logFailure(String kind, String toEmail, Throwable e) {
+        if (e instanceof ServiceOverloadedException) {
+            // Rejected by the circuit breaker or bulkhead; the cause is already visible in the metrics
+            logger.warn("Did not send {} email to {}: {}", kind, toEmail, e.getMessage());
+        } else {
+            logger.error("Failed to send {} email to {}: {}", kind, toEmail, e.getMessage(), e);
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("email.provider.rejected")
+                .description("Email provider calls rejected without being sent")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static Timer requests(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("email.provider.requests")
+                .description("Requests to the email provider")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
-} 
\ No newline at end of file
+}
@@ -1,83 +1,203 @@
 package com.example.springdemo.service;
 
+import com.example.springdemo.dto.BatchCalculationItemDto;
+import com.example.springdemo.dto.BatchCalculationResponseDto;
 import com.example.springdemo.dto.CalculationDto;
 import com.example.springdemo.dto.CalculationResponseDto;
+import com.example.springdemo.dto.ExpressionDto;
+import com.example.springdemo.dto.ExpressionResponseDto;
+import com.example.springdemo.model.calculation.CalculationRecord;
+import com.example.springdemo.security.AuthenticatedUser;
+import com.example.springdemo.service.calculation.CalculationHistoryWriter;
+import com.example.springdemo.service.calculation.CalculationEngine;
+import com.example.springdemo.service.calculation.CalculationOperation;
+import com.example.springdemo.service.calculation.CalculationResultCache;
+import com.example.springdemo.service.calculation.CalculationRollups;
+import com.example.springdemo.service.expression.ExpressionPlanCache;
+import com.example.springdemo.service.expression.TieredExpression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class CalculationService {
 
     private static final Logger logger = LoggerFactory.getLogger(CalculationService.class);
 
-    @Cacheable("calculation")
+    private final CalculationResultCache resultCache;
+    private final ExpressionPlanCache expressionPlanCache;
+    private final CalculationHistoryWriter historyWriter;
+    private final CalculationRollups rollups;
+
+    @Value("${app.calculation.batch.max-size:100000}")
+    private int maxBatchSize;
+
+    public CalculationService(CalculationResultCache resultCache, ExpressionPlanCache expressionPlanCache,
+                              CalculationHistoryWriter historyWriter, CalculationRollups rollups) {
+        this.resultCache = resultCache;
+        this.expressionPlanCache = expressionPlanCache;
+        this.historyWriter = historyWriter;
+        this.rollups = rollups;
+    }
+
     public CalculationResponseDto add(CalculationDto dto) {
-        logger.info("Adding numbers: {} + {}", dto.getNumber1(), dto.getNumber2());
-        
-        Double result = dto.getNumber1() + dto.getNumber2();
-        
-        logger.info("Addition result: {}", result);
-        
-        return new CalculationResponseDto(
-            dto.getNumber1(),
-            dto.getNumber2(),
-            result,
-            "addition"
-        );
+        return calculate(CalculationOperation.ADDITION, dto);
     }
 
-    @Cacheable("calculation")
     public CalculationResponseDto subtract(CalculationDto dto) {
-        logger.info("Subtracting numbers: {} - {}", dto.getNumber1(), dto.getNumber2());
-        
-        Double result = dto.getNumber1() - dto.getNumber2();
-        
-        logger.info("Subtraction result: {}", result);
-        
-        return new CalculationResponseDto(
-            dto.getNumber1(),
-            dto.getNumber2(),
-            result,
-            "subtraction"
-        );
+        return calculate(CalculationOperation.SUBTRACTION, dto);
     }
 
-    @Cacheable("calculation")
     public CalculationResponseDto multiply(CalculationDto dto) {
-        logger.info("Multiplying numbers: {} * {}", dto.getNumber1(), dto.getNumber2());
-        
-        Double result = dto.getNumber1() * dto.getNumber2();
-        
-        logger.info("Multiplication result: {}", result);
-        
-        return new CalculationResponseDto(
-            dto.getNumber1(),
-            dto.getNumber2(),
-            result,
-            "multiplication"
-        );
+        return calculate(CalculationOperation.MULTIPLICATION, dto);
     }
 
-    @Cacheable("calculation")
     public CalculationResponseDto divide(CalculationDto dto) {
-        logger.info("Dividing numbers: {} / {}", dto.getNumber1(), dto.getNumber2());
-        
-        if (dto.getNumber2() == 0) {
-            logger.error("Division by zero attempted: {} / {}", dto.getNumber1(), dto.getNumber2());
-            throw new IllegalArgumentException("Division by zero is not allowed");
+        return calculate(CalculationOperation.DIVISION, dto);
+    }
+
+    /**
+     * Perform a calculation for an API request.
+     * Operands are unboxed once; the result is boxed only when the response DTO is built,
+     * and identical calculations share a single cached response instance.
+     * The calculation is recorded in the history without waiting for the write, and counted in the per-minute rollups.
+     */
+    public CalculationResponseDto calculate(CalculationOperation operation, CalculationDto dto) {
+        final double number1 = dto.getNumber1();
+        final double number2 = dto.getNumber2();
+
+        CalculationResponseDto response = resultCache.get(operation, number1, number2, () -> {
+            double result = compute(operation, number1, number2);
+            return new CalculationResponseDto(number1, number2, result, operation.getLabel());
+        });
+        historyWriter.record(CalculationRecord.binary(
+                currentUserId(), operation.getLabel(), number1, number2, response.getResult()));
+        rollups.record(operation, number1, number2, response.getResult());
+        return response;
+    }
+
+    /**
+     * Perform a calculation on primitive operands without caching or allocation
+     * @throws IllegalArgumentException on division by zero
+     */
+    public double compute(CalculationOperation operation, double number1, double number2) {
+        try {
+            double result = CalculationEngine.apply(operation, number1, number2);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Calculated {} of {} and {}: {}", operation.getLabel(), number1, number2, result);
+            }
+            return result;
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid {} attempted: {}, {} - {}", operation.getLabel(), number1, number2, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluate an arithmetic expression with the given variable bindings.
+     * The compiled plan is cached by expression text, so only binding and evaluation run on repeat calls.
+     * Each evaluation counts towards promoting the expression to generated bytecode.
+     */
+    public ExpressionResponseDto evaluate(ExpressionDto dto) {
+        TieredExpression expression = expressionPlanCache.getExpression(dto.getExpression());
+        double result = expression.evaluate(expression.bind(dto.getVariables()));
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Evaluated expression '{}' with {}: {}", expression.getExpression(), dto.getVariables(), result);
+        }
+        historyWriter.record(CalculationRecord.expression(currentUserId(), expression.getExpression(), result));
+        rollups.recordExpression(result);
+        return new ExpressionResponseDto(expression.getExpression(), dto.getVariables(), result);
+    }
+
+    /**
+     * Evaluate a batch of mixed calculations.
+     * Items are decoded into primitive arrays, invalid items are recorded as per-item errors,
+     * and the remaining items are evaluated in a single pass without touching the result cache.
+     */
+    public BatchCalculationResponseDto calculateBatch(List<BatchCalculationItemDto> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("Batch items are required");
+        }
+        int size = items.size();
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + size + " exceeds the maximum of " + maxBatchSize);
         }
-        
-        Double result = dto.getNumber1() / dto.getNumber2();
-        
-        logger.info("Division result: {}", result);
-        
-        return new CalculationResponseDto(
-            dto.getNumber1(),
-            dto.getNumber2(),
-            result,
-            "division"
-        );
+
+        CalculationOperation[] operations = new CalculationOperation[size];
+        double[] numbers1 = new double[size];
+        double[] numbers2 = new double[size];
+        double[] results = new double[size];
+        List<BatchCalculationResponseDto.ItemError> errors = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            String error = decodeBatchItem(items.get(i), i, operations, numbers1, numbers2);
+            if (error != null) {
+                operations[i] = null;
+                errors.add(new BatchCalculationResponseDto.ItemError(i, error));
+            }
+        }
+
+        CalculationEngine.applyAll(operations, numbers1, numbers2, results);
+
+        // Box only at the JSON boundary
+        Double[] boxedResults = new Double[size];
+        for (int i = 0; i < size; i++) {
+            if (operations[i] != null) {
+                boxedResults[i] = results[i];
+            }
+        }
+
+        logger.debug("Batch of {} calculations evaluated with {} errors", size, errors.size());
+        return new BatchCalculationResponseDto(boxedResults, errors);
+    }
+
+    /**
+     * Id of the authenticated caller, or null for anonymous requests
+     */
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Decode a batch item into the primitive arrays
+     * @return an error message, or null if the item is valid
+     */
+    private String decodeBatchItem(BatchCalculationItemDto item, int index, CalculationOperation[] operations,
+                                   double[] numbers1, double[] numbers2) {
+        if (item == null) {
+            return "Item is required";
+        }
+        CalculationOperation operation = CalculationOperation.fromName(item.getOperation());
+        if (operation == null) {
+            return "Unsupported operation: " + item.getOperation();
+        }
+        if (item.getNumber1() == null) {
+            return "First number is required";
+        }
+        if (item.getNumber2() == null) {
+            return "Second number is required";
+        }
+        double number1 = item.getNumber1();
+        double number2 = item.getNumber2();
+        String error = CalculationEngine.validate(operation, number1, number2);
+        if (error != null) {
+            return error;
+        }
+
+        operations[index] = operation;
+        numbers1[index] = number1;
+        numbers2[index] = number2;
+        return null;
     }
-} 
\ No newline at end of file
+}
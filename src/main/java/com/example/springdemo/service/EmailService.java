@@ -1,5 +1,14 @@
 package com.example.springdemo.service;
 
+import com.example.springdemo.model.email.DeliveryResult;
+import com.example.springdemo.model.email.EmailMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
 /**
  * Email service interface for sending emails
  */
@@ -22,4 +31,48 @@ public interface EmailService {
      * @return true if email was sent successfully, false otherwise
      */
     boolean sendWelcomeEmail(String toEmail, String username);
-} 
\ No newline at end of file
+
+    /**
+     * Send password reset email without blocking the caller.
+     * The default implementation runs the blocking variant on the bounded elastic scheduler;
+     * implementations with a non-blocking transport should override it.
+     * @return emits true if email was sent successfully, false otherwise
+     */
+    default Mono<Boolean> sendPasswordResetEmailAsync(String toEmail, String username, String resetToken, String resetUrl) {
+        return Mono.fromCallable(() -> sendPasswordResetEmail(toEmail, username, resetToken, resetUrl))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Send welcome email without blocking the caller
+     * @return emits true if email was sent successfully, false otherwise
+     * @see #sendPasswordResetEmailAsync(String, String, String, String)
+     */
+    default Mono<Boolean> sendWelcomeEmailAsync(String toEmail, String username) {
+        return Mono.fromCallable(() -> sendWelcomeEmail(toEmail, username))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Send a batch of messages, as drained from the email outbox.
+     * The default implementation sends them one by one and, as the single-message methods only report
+     * success, treats every failure as retryable; implementations that can tell a permanent rejection
+     * apart, or whose provider accepts several messages per request, should override it.
+     * @param deadline no send is started after this instant; the remaining messages are reported as RETRY
+     * @return emits one result per message, in order, as soon as it is known
+     */
+    default Flux<DeliveryResult> sendBatch(List<EmailMessage> messages, Instant deadline) {
+        return Flux.fromIterable(messages)
+                .concatMap(message -> {
+                    if (!Instant.now().isBefore(deadline)) {
+                        return Mono.just(DeliveryResult.RETRY);
+                    }
+                    Mono<Boolean> sent = switch (message.getType()) {
+                        case WELCOME -> sendWelcomeEmailAsync(message.getToEmail(), message.getUsername());
+                        case PASSWORD_RESET -> sendPasswordResetEmailAsync(
+                                message.getToEmail(), message.getUsername(), message.getResetToken(), message.getResetUrl());
+                    };
+                    return sent.map(ok -> ok ? DeliveryResult.SENT : DeliveryResult.RETRY);
+                });
+    }
+}
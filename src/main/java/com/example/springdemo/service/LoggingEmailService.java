@@ -1,5 +1,7 @@
 package com.example.springdemo.service;
 
+import com.example.springdemo.service.email.EmailTemplates;
+import com.example.springdemo.service.email.RenderedEmail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,20 +24,27 @@ public class LoggingEmailService implements EmailService {
     @Value("${brevo.sender.name:Spring Demo}")
     private String senderName;
 
+    private final EmailTemplates emailTemplates;
+
+    public LoggingEmailService(EmailTemplates emailTemplates) {
+        this.emailTemplates = emailTemplates;
+    }
+
     @Override
     public boolean sendPasswordResetEmail(String toEmail, String username, String resetToken, String resetUrl) {
         try {
+            RenderedEmail email = emailTemplates.passwordReset(username, resetUrl);
             logger.info("=== PASSWORD RESET EMAIL ===");
             logger.info("To: {}", toEmail);
             logger.info("From: {} <{}>", senderName, senderEmail);
-            logger.info("Subject: Password Reset Request");
+            logger.info("Subject: {}", email.subject());
             logger.info("Username: {}", username);
             logger.info("Reset Token: {}", resetToken);
             logger.info("Reset URL: {}", resetUrl);
+            logger.debug("Body:\n{}", email.text());
             logger.info("=== END EMAIL ===");
             
-            // In a real implementation, this would send via Brevo
-            // For now, we just log the email content
+            // Rendered with the same templates Brevo sends; only the content is logged
             return true;
 
         } catch (Exception e) {
@@ -47,15 +56,16 @@ public class LoggingEmailService implements EmailService {
     @Override
     public boolean sendWelcomeEmail(String toEmail, String username) {
         try {
+            RenderedEmail email = emailTemplates.welcome(username);
             logger.info("=== WELCOME EMAIL ===");
             logger.info("To: {}", toEmail);
             logger.info("From: {} <{}>", senderName, senderEmail);
-            logger.info("Subject: Welcome to Spring Demo!");
+            logger.info("Subject: {}", email.subject());
             logger.info("Username: {}", username);
+            logger.debug("Body:\n{}", email.text());
             logger.info("=== END EMAIL ===");
             
-            // In a real implementation, this would send via Brevo
-            // For now, we just log the email content
+            // Rendered with the same templates Brevo sends; only the content is logged
             return true;
 
         } catch (Exception e) {
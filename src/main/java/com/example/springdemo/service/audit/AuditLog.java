@@ -0,0 +1,177 @@
+package com.example.springdemo.service.audit;
+
+import com.example.springdemo.model.audit.AuditEvent;
+import com.example.springdemo.model.audit.AuditEventType;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured audit trail of authentication events, stored in the audit_logs collection.
+ *
+ * Callers publish into a preallocated {@link AuditRingBuffer}, which costs a CAS and a few field
+ * writes and never waits on MongoDB. A single consumer thread drains the ring in order and writes
+ * unordered bulk inserts of up to batch-size events, sleeping for idle-wait when the ring is empty.
+ * If MongoDB falls behind long enough for the ring to fill, new events are dropped and counted.
+ *
+ * Exported as audit.ring.backlog, audit.events.written, audit.events.dropped{reason=ring_full|write_failed}
+ * and audit.flush.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final Duration shutdownTimeout;
+    private final AuditRingBuffer ring;
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter ringFullDrops;
+    private final Counter writeFailureDrops;
+    private final Timer flushTimer;
+
+    public AuditLog(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.enabled:true}") boolean enabled,
+            @Value("${app.audit.ring-size:65536}") int ringSize,
+            @Value("${app.audit.batch-size:512}") int batchSize,
+            @Value("${app.audit.idle-wait-ms:100}") long idleWaitMillis,
+            @Value("${app.audit.shutdown-timeout:5s}") Duration shutdownTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(idleWaitMillis);
+        this.shutdownTimeout = shutdownTimeout;
+        this.ring = new AuditRingBuffer(enabled ? ringSize : 2);
+
+        Gauge.builder("audit.ring.backlog", ring, AuditRingBuffer::backlog)
+                .description("Audit events published and not yet written")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written")
+                .description("Audit events written to MongoDB")
+                .register(meterRegistry);
+        this.ringFullDrops = drops(meterRegistry, "ring_full");
+        this.writeFailureDrops = drops(meterRegistry, "write_failed");
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time spent on one bulk insert of audit events")
+                .register(meterRegistry);
+
+        this.consumer = new CustomizableThreadFactory("audit-log-").newThread(this::run);
+        this.consumer.setDaemon(true);
+        if (enabled) {
+            this.consumer.start();
+        }
+    }
+
+    /**
+     * Record a successful action
+     * @param ipAddress client address the request came from, or null if unknown
+     */
+    public void success(AuditEventType type, String userId, String username, String ipAddress) {
+        record(type, true, userId, username, ipAddress, null);
+    }
+
+    /**
+     * Record a refused or failed action
+     * @param ipAddress client address the request came from, or null if unknown
+     * @param reason short, non-sensitive explanation (never a password or token)
+     */
+    public void failure(AuditEventType type, String userId, String username, String ipAddress, String reason) {
+        record(type, false, userId, username, ipAddress, reason);
+    }
+
+    /**
+     * Record an event; never blocks
+     */
+    public void record(AuditEventType type, boolean success, String userId, String username,
+                       String ipAddress, String detail) {
+        if (!enabled) {
+            return;
+        }
+        if (!ring.publish(type, success, userId, username, ipAddress, detail, System.currentTimeMillis())) {
+            ringFullDrops.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ring.backlog() > 0) {
+            logger.warn("{} audit events were not written before shutdown", ring.backlog());
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (ring.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, idleWaitNanos);
+                continue;
+            }
+            insert(batch);
+            batch.clear();
+        }
+        // Final drain of whatever was published before shutdown
+        while (ring.drainTo(batch, batchSize) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            BulkWriteResult result = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditEvent.class)
+                    .insert(batch)
+                    .execute();
+            written.increment(result.getInsertedCount());
+        } catch (BulkOperationException e) {
+            int inserted = e.getResult().getInsertedCount();
+            written.increment(inserted);
+            writeFailureDrops.increment(batch.size() - inserted);
+            logger.warn("{} of {} audit events could not be written: {}", batch.size() - inserted, batch.size(), e.getMessage());
+        } catch (Exception e) {
+            writeFailureDrops.increment(batch.size());
+            logger.warn("Dropped {} audit events: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Counter drops(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("audit.events.dropped")
+                .description("Audit events discarded instead of written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
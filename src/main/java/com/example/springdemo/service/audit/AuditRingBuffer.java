@@ -0,0 +1,119 @@
+package com.example.springdemo.service.audit;
+
+import com.example.springdemo.model.audit.AuditEvent;
+import com.example.springdemo.model.audit.AuditEventType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated audit event slots.
+ *
+ * A producer claims the next sequence with one CAS, fills the slot's fields in place and publishes
+ * it by storing the sequence in the slot's published marker; nothing is allocated. When every slot
+ * is still waiting for the consumer the event is refused instead of waiting. The consumer copies
+ * published slots out in sequence order and only then releases them to producers.
+ */
+final class AuditRingBuffer {
+
+    private final Slot[] slots;
+    private final int mask;
+    // Sequence stored in each slot once its fields are written; -1 before the first publish
+    private final AtomicLongArray published;
+    // Next sequence to hand to a producer
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence the consumer will read; slots below it are free
+    private final AtomicLong consumed = new AtomicLong();
+
+    AuditRingBuffer(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publish an event; safe to call from any thread, never blocks
+     * @return false if the ring is full and the event was not recorded
+     */
+    boolean publish(AuditEventType type, boolean success, String userId, String username,
+                    String ipAddress, String detail, long timestampMillis) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        Slot slot = slots[index];
+        slot.type = type;
+        slot.success = success;
+        slot.userId = userId;
+        slot.username = username;
+        slot.ipAddress = ipAddress;
+        slot.detail = detail;
+        slot.timestampMillis = timestampMillis;
+        // Release store: the consumer sees the fields once it sees the sequence
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Move up to max published events, in order, into the batch. Only the consumer thread may call this
+     * @return number of events moved
+     */
+    int drainTo(List<AuditEvent> batch, int max) {
+        long sequence = consumed.get();
+        int count = 0;
+        while (count < max) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                // Not yet claimed, or claimed but still being written
+                break;
+            }
+            Slot slot = slots[index];
+            batch.add(new AuditEvent(slot.type, slot.success, slot.userId, slot.username, slot.ipAddress, slot.detail,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.timestampMillis), ZoneId.systemDefault())));
+            // Drop references so a parked ring does not keep request data alive
+            slot.userId = null;
+            slot.username = null;
+            slot.ipAddress = null;
+            slot.detail = null;
+            sequence++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(sequence);
+        }
+        return count;
+    }
+
+    /**
+     * Events claimed by producers and not yet drained by the consumer
+     */
+    long backlog() {
+        return claimed.get() - consumed.get();
+    }
+
+    private static final class Slot {
+        AuditEventType type;
+        boolean success;
+        String userId;
+        String username;
+        String ipAddress;
+        String detail;
+        long timestampMillis;
+    }
+}
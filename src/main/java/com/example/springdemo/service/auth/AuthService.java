@@ -1,21 +1,33 @@
 package com.example.springdemo.service.auth;
 
+import com.example.springdemo.exception.ServiceOverloadedException;
 import com.example.springdemo.model.auth.AuthResponse;
 import com.example.springdemo.model.auth.ForgotPasswordRequest;
+import com.example.springdemo.model.auth.LoginCredentials;
 import com.example.springdemo.model.auth.LoginRequest;
+import com.example.springdemo.model.auth.RefreshSession;
 import com.example.springdemo.model.auth.RefreshTokenRequest;
 import com.example.springdemo.model.auth.ResetPasswordRequest;
 import com.example.springdemo.model.auth.SignupRequest;
+import com.example.springdemo.model.audit.AuditEventType;
 import com.example.springdemo.model.auth.User;
+import com.example.springdemo.model.email.EmailMessage;
+import com.example.springdemo.repository.RefreshSessionRepository;
 import com.example.springdemo.repository.UserRepository;
-import com.example.springdemo.service.EmailService;
+import com.example.springdemo.security.UserStatusCache;
+import com.example.springdemo.service.audit.AuditLog;
+import com.example.springdemo.service.email.EmailOutbox;
+import com.example.springdemo.util.TokenDigest;
+import io.jsonwebtoken.Claims;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
@@ -24,33 +36,50 @@ public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final EmailOutbox emailOutbox;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserStatusCache userStatusCache;
+    private final UserCache userCache;
+    private final UserExistenceFilter userExistenceFilter;
+    private final RefreshSessionRepository refreshSessionRepository;
+    private final AuditLog auditLog;
 
     @Value("${app.password-reset.url:http://localhost:3000/reset-password}")
     private String passwordResetUrl;
 
     @Autowired
-    public AuthService(JwtService jwtService, PasswordEncoder passwordEncoder, UserRepository userRepository, EmailService emailService) {
+    public AuthService(JwtService jwtService, PasswordHashingService passwordHashingService, UserRepository userRepository,
+                       EmailOutbox emailOutbox, VerifiedTokenCache verifiedTokenCache, UserStatusCache userStatusCache,
+                       UserCache userCache, UserExistenceFilter userExistenceFilter,
+                       RefreshSessionRepository refreshSessionRepository, AuditLog auditLog) {
         this.jwtService = jwtService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.userRepository = userRepository;
-        this.emailService = emailService;
+        this.emailOutbox = emailOutbox;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userStatusCache = userStatusCache;
+        this.userCache = userCache;
+        this.userExistenceFilter = userExistenceFilter;
+        this.refreshSessionRepository = refreshSessionRepository;
+        this.auditLog = auditLog;
     }
 
-    public AuthResponse signup(SignupRequest signupRequest) {
+    public AuthResponse signup(SignupRequest signupRequest, String clientIp) {
         logger.info("Processing signup request for username: {}", signupRequest.getUsername());
 
-        // Check if username already exists
-        if (userRepository.existsByUsername(signupRequest.getUsername())) {
+        // Check if username already exists (most checks are answered by the in-memory filter)
+        if (existsByUsername(signupRequest.getUsername())) {
             logger.warn("Username already exists: {}", signupRequest.getUsername());
+            auditLog.failure(AuditEventType.SIGNUP, null, signupRequest.getUsername(), clientIp, "Username already exists");
             return new AuthResponse("Username already exists");
         }
 
         // Check if email already exists
-        if (userRepository.existsByEmail(signupRequest.getEmail())) {
+        if (existsByEmail(signupRequest.getEmail())) {
             logger.warn("Email already exists: {}", signupRequest.getEmail());
+            auditLog.failure(AuditEventType.SIGNUP, null, signupRequest.getUsername(), clientIp, "Email already exists");
             return new AuthResponse("Email already exists");
         }
 
@@ -59,32 +88,32 @@ public class AuthService {
             User user = new User();
             user.setUsername(signupRequest.getUsername());
             user.setEmail(signupRequest.getEmail());
-            user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
+            user.setPassword(passwordHashingService.encode(signupRequest.getPassword()));
             user.setFullName(signupRequest.getFullName());
             user.setRole("USER");
             user.setEnabled(true);
             user.setCreatedAt(LocalDateTime.now());
             user.setUpdatedAt(LocalDateTime.now());
+            // Assign the id up front so the access token can carry it and the user is written once
+            user.setId(new ObjectId().toHexString());
 
-            // Save user to MongoDB
-            User savedUser = userRepository.save(user);
+            // Insert user into MongoDB
+            User savedUser = userCache.insert(user);
+            userExistenceFilter.add(savedUser.getUsername(), savedUser.getEmail());
 
-            // Generate JWT token and refresh token
-            String token = jwtService.generateTokenForUser(savedUser.getUsername());
-            String refreshToken = jwtService.generateRefreshToken(savedUser);
+            // Generate JWT token and open the first refresh session
+            String token = jwtService.generateAccessToken(savedUser);
+            String refreshToken = openSession(LoginCredentials.from(savedUser));
 
-            // Save refresh token to user
-            savedUser.setRefreshToken(refreshToken);
-            userRepository.save(savedUser);
-
-            // Send welcome email (async)
+            // Queue the welcome email; the outbox worker delivers it
             try {
-                emailService.sendWelcomeEmail(savedUser.getEmail(), savedUser.getUsername());
+                emailOutbox.enqueue(EmailMessage.welcome(savedUser.getEmail(), savedUser.getUsername()));
             } catch (Exception e) {
-                logger.warn("Failed to send welcome email to {}: {}", savedUser.getEmail(), e.getMessage());
+                logger.warn("Failed to queue welcome email to {}: {}", savedUser.getEmail(), e.getMessage());
             }
 
             logger.info("User registered successfully: {}", savedUser.getUsername());
+            auditLog.success(AuditEventType.SIGNUP, savedUser.getId(), savedUser.getUsername(), clientIp);
 
             return new AuthResponse(
                 token,
@@ -95,75 +124,112 @@ public class AuthService {
                 "User registered successfully"
             );
 
+        } catch (DuplicateKeyException e) {
+            AuthResponse response = duplicateUser(signupRequest);
+            auditLog.failure(AuditEventType.SIGNUP, null, signupRequest.getUsername(), clientIp, response.getMessage());
+            return response;
+        } catch (ServiceOverloadedException e) {
+            // Surfaced as 503 by the controller
+            throw e;
         } catch (Exception e) {
             logger.error("Error during user registration: {}", e.getMessage(), e);
+            auditLog.failure(AuditEventType.SIGNUP, null, signupRequest.getUsername(), clientIp, "Error");
             return new AuthResponse("Registration failed: " + e.getMessage());
         }
     }
 
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username).orElse(null);
+        return userCache.findByUsername(username);
     }
 
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return userExistenceFilter.mightContainUsername(username) && userRepository.existsByUsername(username);
     }
 
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userExistenceFilter.mightContainEmail(email) && userRepository.existsByEmail(email);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return !existsByUsername(username);
+    }
+
+    /**
+     * Map an insert rejected by a unique index, i.e. a username or email taken by a concurrent signup
+     * or on another node since the filter last saw it. The driver's error does not identify the
+     * violated key reliably, so the taken value is looked up again, username first as in the pre-checks
+     */
+    private AuthResponse duplicateUser(SignupRequest signupRequest) {
+        boolean usernameTaken;
+        try {
+            usernameTaken = userRepository.existsByUsername(signupRequest.getUsername());
+        } catch (Exception e) {
+            logger.error("Error resolving duplicate signup for {}: {}", signupRequest.getUsername(), e.getMessage());
+            return new AuthResponse("Registration failed: " + e.getMessage());
+        }
+        if (usernameTaken) {
+            logger.warn("Username already exists: {}", signupRequest.getUsername());
+            userExistenceFilter.add(signupRequest.getUsername(), null);
+            return new AuthResponse("Username already exists");
+        }
+        logger.warn("Email already exists: {}", signupRequest.getEmail());
+        userExistenceFilter.add(null, signupRequest.getEmail());
+        return new AuthResponse("Email already exists");
     }
 
-    public AuthResponse login(LoginRequest loginRequest) {
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
         logger.info("Processing login request for: {}", loginRequest.getUsernameOrEmail());
 
         try {
-            // Find user by username or email
-            User user = findByUsernameOrEmail(loginRequest.getUsernameOrEmail());
+            // Resolve username or email in one projected query, always read from MongoDB
+            LoginCredentials credentials = userCache.findLoginCredentials(loginRequest.getUsernameOrEmail());
             
-            if (user == null) {
+            if (credentials == null) {
                 logger.warn("Login failed: User not found - {}", loginRequest.getUsernameOrEmail());
+                auditLog.failure(AuditEventType.LOGIN, null, loginRequest.getUsernameOrEmail(), clientIp, "User not found");
                 return new AuthResponse("Invalid username/email or password");
             }
 
             // Check if user is enabled
-            if (!user.isEnabled()) {
-                logger.warn("Login failed: User account disabled - {}", user.getUsername());
+            if (!credentials.isEnabled()) {
+                logger.warn("Login failed: User account disabled - {}", credentials.getUsername());
+                auditLog.failure(AuditEventType.LOGIN, credentials.getId(), credentials.getUsername(), clientIp, "Account is disabled");
                 return new AuthResponse("Account is disabled");
             }
 
             // Verify password
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                logger.warn("Login failed: Invalid password for user - {}", user.getUsername());
+            if (!passwordHashingService.matches(loginRequest.getPassword(), credentials.getPassword())) {
+                logger.warn("Login failed: Invalid password for user - {}", credentials.getUsername());
+                auditLog.failure(AuditEventType.LOGIN, credentials.getId(), credentials.getUsername(), clientIp, "Invalid password");
                 return new AuthResponse("Invalid username/email or password");
             }
 
-            // Generate JWT token and refresh token
-            String token = jwtService.generateTokenForUser(user.getUsername());
-            String refreshToken = jwtService.generateRefreshToken(user);
-
-            // Save refresh token to user
-            user.setRefreshToken(refreshToken);
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+            // Generate JWT token and open a new refresh session; other devices stay signed in
+            String token = jwtService.generateAccessToken(credentials);
+            String refreshToken = openSession(credentials);
 
-            logger.info("User logged in successfully: {}", user.getUsername());
+            logger.info("User logged in successfully: {}", credentials.getUsername());
+            auditLog.success(AuditEventType.LOGIN, credentials.getId(), credentials.getUsername(), clientIp);
 
             return new AuthResponse(
                 token,
                 refreshToken,
-                user.getUsername(),
-                user.getEmail(),
-                user.getFullName(),
+                credentials.getUsername(),
+                credentials.getEmail(),
+                credentials.getFullName(),
                 "Login successful"
             );
 
+        } catch (ServiceOverloadedException e) {
+            // Surfaced as 503 by the controller
+            throw e;
         } catch (Exception e) {
             logger.error("Error during user login: {}", e.getMessage(), e);
             return new AuthResponse("Login failed: " + e.getMessage());
         }
     }
 
-    public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
+    public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest, String clientIp) {
         logger.info("Processing refresh token request");
 
         try {
@@ -174,57 +240,52 @@ public class AuthService {
                 return new AuthResponse("Invalid refresh token");
             }
 
-            // Extract username from refresh token
-            String username = jwtService.extractUsername(refreshToken);
-            
-            if (username == null) {
-                logger.warn("Could not extract username from refresh token");
-                return new AuthResponse("Invalid refresh token");
-            }
+            // Verify refresh token signature and expiry once and read the username from it
+            Claims claims = verifiedTokenCache.verify(refreshToken);
+            String username = claims != null ? claims.getSubject() : null;
 
-            // Find user by username
-            User user = findByUsername(username);
-            
-            if (user == null) {
-                logger.warn("User not found for refresh token: {}", username);
+            if (username == null) {
+                logger.warn("Invalid or expired refresh token");
+                auditLog.failure(AuditEventType.TOKEN_REFRESH, null, null, clientIp, "Invalid or expired refresh token");
                 return new AuthResponse("Invalid refresh token");
             }
 
-            // Check if user is enabled
-            if (!user.isEnabled()) {
-                logger.warn("User account disabled for refresh token: {}", username);
-                return new AuthResponse("Account is disabled");
-            }
-
-            // Verify that the stored refresh token matches the provided one
-            if (!refreshToken.equals(user.getRefreshToken())) {
-                logger.warn("Refresh token mismatch for user: {}", username);
+            // Rotate the session's token in one find-and-modify on refresh_tokens, the only session lookup:
+            // it only succeeds if the presented token is still current, so two concurrent refreshes with it
+            // cannot both succeed
+            String newRefreshToken = jwtService.generateRefreshToken(username);
+            String newTokenHash = TokenDigest.sha256Hex(newRefreshToken);
+            RefreshSession session = refreshSessionRepository.rotate(
+                    TokenDigest.sha256Hex(refreshToken), newTokenHash, refreshTokenExpiry());
+
+            if (session == null) {
+                logger.warn("Refresh token is revoked, already used or expired for user: {}", username);
+                auditLog.failure(AuditEventType.TOKEN_REFRESH, null, username, clientIp, "Refresh token is not current");
                 return new AuthResponse("Invalid refresh token");
             }
 
-            // Verify refresh token is valid
-            if (!jwtService.isTokenValid(refreshToken, user)) {
-                logger.warn("Invalid refresh token for user: {}", username);
+            // The account is checked through the status cache, so repeated refreshes read the users collection
+            // at most once per staleness bound; a session that may no longer be used is revoked
+            if (!userStatusCache.isCurrent(session.getUserId(), session.getTokenVersion())) {
+                refreshSessionRepository.deleteByTokenHash(newTokenHash);
+                logger.warn("Token refresh failed: Account disabled or credentials changed for user: {}", username);
+                auditLog.failure(AuditEventType.TOKEN_REFRESH, session.getUserId(), username, clientIp, "Account disabled or token version is not current");
                 return new AuthResponse("Invalid refresh token");
             }
 
-            // Generate new JWT token and refresh token
-            String newToken = jwtService.generateTokenForUser(user.getUsername());
-            String newRefreshToken = jwtService.generateRefreshToken(user);
+            // The old token must not be served from the cache anymore
+            verifiedTokenCache.invalidate(refreshToken);
+            String newToken = jwtService.generateAccessToken(session);
 
-            // Update user with new refresh token
-            user.setRefreshToken(newRefreshToken);
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
-
-            logger.info("Token refreshed successfully for user: {}", user.getUsername());
+            logger.info("Token refreshed successfully for user: {}", session.getUsername());
+            auditLog.success(AuditEventType.TOKEN_REFRESH, session.getUserId(), session.getUsername(), clientIp);
 
             return new AuthResponse(
                 newToken,
                 newRefreshToken,
-                user.getUsername(),
-                user.getEmail(),
-                user.getFullName(),
+                session.getUsername(),
+                session.getEmail(),
+                session.getFullName(),
                 "Token refreshed successfully"
             );
 
@@ -234,24 +295,94 @@ public class AuthService {
         }
     }
 
-    public AuthResponse forgotPassword(ForgotPasswordRequest forgotPasswordRequest) {
+    public AuthResponse logout(String accessToken, RefreshTokenRequest refreshTokenRequest, String clientIp) {
+        logger.info("Processing logout request");
+
+        try {
+            String refreshToken = refreshTokenRequest.getRefreshToken();
+
+            // Drop both tokens from the verified-token cache whatever happens next
+            verifiedTokenCache.invalidate(accessToken);
+            verifiedTokenCache.invalidate(refreshToken);
+
+            Claims claims = jwtService.extractValidClaims(refreshToken);
+            if (claims == null) {
+                logger.warn("Logout with invalid or expired refresh token");
+                return new AuthResponse("Invalid refresh token");
+            }
+
+            // Revoke this device's session, only if the token is still the current one
+            if (refreshSessionRepository.deleteByTokenHash(TokenDigest.sha256Hex(refreshToken)) == 0) {
+                logger.warn("Logout with a refresh token that is not current for user: {}", claims.getSubject());
+                return new AuthResponse("Invalid refresh token");
+            }
+
+            logger.info("User logged out successfully: {}", claims.getSubject());
+            auditLog.success(AuditEventType.LOGOUT, null, claims.getSubject(), clientIp);
+
+            return new AuthResponse("Logged out successfully");
+
+        } catch (Exception e) {
+            logger.error("Error during logout: {}", e.getMessage(), e);
+            return new AuthResponse("Logout failed: " + e.getMessage());
+        }
+    }
+
+    public AuthResponse logoutAll(String accessToken, RefreshTokenRequest refreshTokenRequest, String clientIp) {
+        logger.info("Processing logout from all sessions request");
+
+        try {
+            String refreshToken = refreshTokenRequest.getRefreshToken();
+
+            // Drop both tokens from the verified-token cache whatever happens next
+            verifiedTokenCache.invalidate(accessToken);
+            verifiedTokenCache.invalidate(refreshToken);
+
+            Claims claims = jwtService.extractValidClaims(refreshToken);
+            if (claims == null) {
+                logger.warn("Logout from all sessions with invalid or expired refresh token");
+                return new AuthResponse("Invalid refresh token");
+            }
+
+            // Only a current session may revoke the others
+            RefreshSession session = refreshSessionRepository.findByTokenHash(TokenDigest.sha256Hex(refreshToken)).orElse(null);
+            if (session == null) {
+                logger.warn("Logout from all sessions with a refresh token that is not current for user: {}", claims.getSubject());
+                return new AuthResponse("Invalid refresh token");
+            }
+
+            long revoked = refreshSessionRepository.deleteByUserId(session.getUserId());
+            logger.info("User logged out of {} sessions: {}", revoked, session.getUsername());
+            auditLog.success(AuditEventType.LOGOUT_ALL, session.getUserId(), session.getUsername(), clientIp);
+
+            return new AuthResponse("Logged out of all sessions successfully");
+
+        } catch (Exception e) {
+            logger.error("Error during logout from all sessions: {}", e.getMessage(), e);
+            return new AuthResponse("Logout failed: " + e.getMessage());
+        }
+    }
+
+    public AuthResponse forgotPassword(ForgotPasswordRequest forgotPasswordRequest, String clientIp) {
         logger.info("Processing forgot password request for email: {}", forgotPasswordRequest.getEmail());
 
         try {
             String email = forgotPasswordRequest.getEmail();
             
             // Find user by email
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = userCache.findByEmail(email);
             
             if (user == null) {
                 // Don't reveal if email exists or not for security reasons
                 logger.info("Forgot password request for non-existent email: {}", email);
+                auditLog.failure(AuditEventType.PASSWORD_RESET_REQUESTED, null, email, clientIp, "Unknown email");
                 return new AuthResponse("If the email exists, a password reset link has been sent");
             }
 
             // Check if user is enabled
             if (!user.isEnabled()) {
                 logger.warn("Forgot password request for disabled account: {}", email);
+                auditLog.failure(AuditEventType.PASSWORD_RESET_REQUESTED, user.getId(), user.getUsername(), clientIp, "Account is disabled");
                 return new AuthResponse("If the email exists, a password reset link has been sent");
             }
 
@@ -259,29 +390,16 @@ public class AuthService {
             String resetToken = jwtService.generatePasswordResetToken(user.getEmail());
             
             // Save reset token to user
-            user.setPasswordResetToken(resetToken);
-            user.setPasswordResetTokenExpiry(LocalDateTime.now().plusHours(1));
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+            userCache.updatePasswordResetToken(user, resetToken, LocalDateTime.now().plusHours(1));
 
             // Create reset URL
             String resetUrl = passwordResetUrl + "?token=" + resetToken;
 
-            // Send password reset email
-            boolean emailSent = emailService.sendPasswordResetEmail(
-                user.getEmail(), 
-                user.getUsername(), 
-                resetToken, 
-                resetUrl
-            );
-
-            if (emailSent) {
-                logger.info("Password reset email sent successfully to: {}", email);
-                return new AuthResponse("If the email exists, a password reset link has been sent");
-            } else {
-                logger.error("Failed to send password reset email to: {}", email);
-                return new AuthResponse("Failed to send password reset email. Please try again later.");
-            }
+            // Queue the password reset email; the outbox worker delivers and retries it
+            emailOutbox.enqueue(EmailMessage.passwordReset(user.getEmail(), user.getUsername(), resetToken, resetUrl));
+            logger.info("Password reset email queued for: {}", email);
+            auditLog.success(AuditEventType.PASSWORD_RESET_REQUESTED, user.getId(), user.getUsername(), clientIp);
+            return new AuthResponse("If the email exists, a password reset link has been sent");
 
         } catch (Exception e) {
             logger.error("Error during forgot password process: {}", e.getMessage(), e);
@@ -289,7 +407,7 @@ public class AuthService {
         }
     }
 
-    public AuthResponse resetPassword(ResetPasswordRequest resetPasswordRequest) {
+    public AuthResponse resetPassword(ResetPasswordRequest resetPasswordRequest, String clientIp) {
         logger.info("Processing password reset request");
 
         try {
@@ -303,35 +421,39 @@ public class AuthService {
                 return new AuthResponse("Passwords do not match");
             }
 
-            // Validate reset token
-            if (!jwtService.isPasswordResetTokenValid(resetToken)) {
+            // Validate reset token and extract email from it
+            String email = jwtService.extractPasswordResetEmail(resetToken);
+            if (email == null) {
                 logger.warn("Password reset failed: invalid reset token");
+                auditLog.failure(AuditEventType.PASSWORD_RESET, null, null, clientIp, "Invalid or expired reset token");
                 return new AuthResponse("Invalid or expired reset token");
             }
 
-            // Extract email from token
-            String email = jwtService.extractEmailFromPasswordResetToken(resetToken);
-            if (email == null) {
-                logger.warn("Password reset failed: could not extract email from token");
-                return new AuthResponse("Invalid reset token");
+            // Find user by email
+            User user = userCache.findByEmail(email);
+
+            // The reset token may have been issued by another node after this node cached the user
+            if (user != null && !resetToken.equals(user.getPasswordResetToken())) {
+                user = userCache.reload(user.getUsername());
             }
 
-            // Find user by email
-            User user = userRepository.findByEmail(email).orElse(null);
             if (user == null) {
                 logger.warn("Password reset failed: user not found for email: {}", email);
+                auditLog.failure(AuditEventType.PASSWORD_RESET, null, email, clientIp, "User not found");
                 return new AuthResponse("Invalid reset token");
             }
 
             // Check if user is enabled
             if (!user.isEnabled()) {
                 logger.warn("Password reset failed: user account disabled: {}", email);
+                auditLog.failure(AuditEventType.PASSWORD_RESET, user.getId(), user.getUsername(), clientIp, "Account is disabled");
                 return new AuthResponse("Account is disabled");
             }
 
             // Verify stored reset token matches
             if (!resetToken.equals(user.getPasswordResetToken())) {
                 logger.warn("Password reset failed: token mismatch for user: {}", user.getUsername());
+                auditLog.failure(AuditEventType.PASSWORD_RESET, user.getId(), user.getUsername(), clientIp, "Reset token is not current");
                 return new AuthResponse("Invalid reset token");
             }
 
@@ -339,17 +461,24 @@ public class AuthService {
             if (user.getPasswordResetTokenExpiry() == null || 
                 user.getPasswordResetTokenExpiry().isBefore(LocalDateTime.now())) {
                 logger.warn("Password reset failed: token expired for user: {}", user.getUsername());
+                auditLog.failure(AuditEventType.PASSWORD_RESET, user.getId(), user.getUsername(), clientIp, "Reset token has expired");
                 return new AuthResponse("Reset token has expired");
             }
 
-            // Update password
-            user.setPassword(passwordEncoder.encode(newPassword));
-            user.setPasswordResetToken(null);
-            user.setPasswordResetTokenExpiry(null);
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+            // Update password and consume the reset token in one find-and-modify, so the token works once.
+            // This also invalidates access tokens and the refresh token issued with the old password
+            String encodedPassword = passwordHashingService.encode(newPassword);
+            user = userCache.resetPassword(email, resetToken, encodedPassword);
+            if (user == null) {
+                logger.warn("Password reset failed: token already used for email: {}", email);
+                auditLog.failure(AuditEventType.PASSWORD_RESET, null, email, clientIp, "Reset token already used");
+                return new AuthResponse("Invalid reset token");
+            }
+            userStatusCache.invalidate(user.getId());
+            refreshSessionRepository.deleteByUserId(user.getId());
 
             logger.info("Password reset successfully for user: {}", user.getUsername());
+            auditLog.success(AuditEventType.PASSWORD_RESET, user.getId(), user.getUsername(), clientIp);
 
             return new AuthResponse(
                 null,
@@ -360,19 +489,36 @@ public class AuthService {
                 "Password reset successfully"
             );
 
+        } catch (ServiceOverloadedException e) {
+            // Surfaced as 503 by the controller
+            throw e;
         } catch (Exception e) {
             logger.error("Error during password reset: {}", e.getMessage(), e);
             return new AuthResponse("Password reset failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Open a refresh session (one per signed-in device) and return its refresh token.
+     * Only the token's hash is stored
+     */
+    private String openSession(LoginCredentials credentials) {
+        String refreshToken = jwtService.generateRefreshToken(credentials.getUsername());
+        refreshSessionRepository.insert(RefreshSession.of(credentials, TokenDigest.sha256Hex(refreshToken), refreshTokenExpiry()));
+        return refreshToken;
+    }
+
+    private LocalDateTime refreshTokenExpiry() {
+        return LocalDateTime.now().plus(Duration.ofMillis(jwtService.getRefreshExpiration()));
+    }
+
     public User findByUsernameOrEmail(String usernameOrEmail) {
         // First try to find by username
-        User user = userRepository.findByUsername(usernameOrEmail).orElse(null);
+        User user = userCache.findByUsername(usernameOrEmail);
         
         if (user == null) {
             // If not found by username, try by email
-            user = userRepository.findByEmail(usernameOrEmail).orElse(null);
+            user = userCache.findByEmail(usernameOrEmail);
         }
         
         return user;
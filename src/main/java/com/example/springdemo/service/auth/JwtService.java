@@ -1,27 +1,39 @@
 package com.example.springdemo.service.auth;
 
+import com.example.springdemo.model.auth.LoginCredentials;
+import com.example.springdemo.model.auth.RefreshSession;
+import com.example.springdemo.model.auth.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import javax.crypto.SecretKey;
 
 @Service
 public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
+    // Claim names and token types
+    public static final String CLAIM_TYPE = "type";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
     private String secretKey;
 
@@ -34,25 +46,34 @@ public class JwtService {
     @Value("${jwt.password-reset.expiration:3600000}") // 1 hour in milliseconds
     private long passwordResetExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Decode the secret and build the parser once; both are immutable and thread-safe
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
-    }
-
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+    public String generateRefreshToken(String username) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TYPE, TOKEN_TYPE_REFRESH);
+        // Unique id: refresh tokens are stored by hash, and two logins within the same second
+        // would otherwise produce identical tokens
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        return buildToken(claims, username, refreshExpiration);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+    /**
+     * Lifetime of refresh tokens in milliseconds
+     */
+    public long getRefreshExpiration() {
+        return refreshExpiration;
     }
 
     public String generatePasswordResetToken(String email) {
@@ -62,88 +83,96 @@ public class JwtService {
         
         return Jwts
                 .builder()
-                .setClaims(claims)
-                .setSubject(email)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + passwordResetExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(email)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + passwordResetExpiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public boolean isPasswordResetTokenValid(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            String type = claims.get("type", String.class);
-            return "password_reset".equals(type) && !isTokenExpired(token);
-        } catch (Exception e) {
-            logger.warn("Invalid password reset token: {}", e.getMessage());
-            return false;
-        }
-    }
-
-    public String extractEmailFromPasswordResetToken(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("email", String.class);
-        } catch (Exception e) {
-            logger.warn("Could not extract email from password reset token: {}", e.getMessage());
+    /**
+     * Verify a password reset token and return its email in a single parse
+     * @return the email, or null if the token is invalid, expired or not a password reset token
+     */
+    public String extractPasswordResetEmail(String token) {
+        Claims claims = extractValidClaims(token);
+        if (claims == null || !"password_reset".equals(claims.get("type", String.class))) {
+            logger.warn("Invalid password reset token");
             return null;
         }
+        return claims.get("email", String.class);
     }
 
     private String buildToken(
             Map<String, Object> extraClaims,
-            UserDetails userDetails,
+            String subject,
             long expiration
     ) {
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .claims(extraClaims)
+                .subject(subject)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    /**
+     * Verify signature and expiry and return all claims from a single parse
+     * @return the claims, or null if the token is malformed, tampered with or expired
+     */
+    public Claims extractValidClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token rejected: {}", e.getMessage());
+            return null;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Parse and verify a token; the parser rejects expired tokens
+     * @throws JwtException if the token is invalid or expired
+     */
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Generate an access token carrying everything needed to authenticate a request without
+     * loading the user: subject, user id, role and the user's current token version
+     */
+    public String generateAccessToken(User user) {
+        return generateAccessToken(user.getId(), user.getUsername(), user.getRole(), user.getTokenVersion());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Generate an access token from login credentials, without the full user document
+     */
+    public String generateAccessToken(LoginCredentials credentials) {
+        return generateAccessToken(credentials.getId(), credentials.getUsername(), credentials.getRole(), credentials.getTokenVersion());
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Generate an access token from a refresh session, without the user document
+     */
+    public String generateAccessToken(RefreshSession session) {
+        return generateAccessToken(session.getUserId(), session.getUsername(), session.getRole(), session.getTokenVersion());
     }
 
-    public String generateTokenForUser(String username) {
+    private String generateAccessToken(String userId, String username, String role, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", username);
-        
-        return Jwts
-                .builder()
-                .setClaims(claims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+        claims.put(CLAIM_TYPE, TOKEN_TYPE_ACCESS);
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE, role);
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+
+        return buildToken(claims, username, jwtExpiration);
     }
 } 
\ No newline at end of file
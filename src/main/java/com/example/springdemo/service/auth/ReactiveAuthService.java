@@ -0,0 +1,486 @@
+package com.example.springdemo.service.auth;
+
+import com.example.springdemo.exception.ServiceOverloadedException;
+import com.example.springdemo.model.auth.AuthResponse;
+import com.example.springdemo.model.auth.ForgotPasswordRequest;
+import com.example.springdemo.model.auth.LoginCredentials;
+import com.example.springdemo.model.auth.LoginRequest;
+import com.example.springdemo.model.auth.RefreshSession;
+import com.example.springdemo.model.auth.RefreshTokenRequest;
+import com.example.springdemo.model.auth.ResetPasswordRequest;
+import com.example.springdemo.model.auth.SignupRequest;
+import com.example.springdemo.model.auth.User;
+import com.example.springdemo.model.email.EmailMessage;
+import com.example.springdemo.repository.ReactiveRefreshSessionRepository;
+import com.example.springdemo.repository.ReactiveUserRepository;
+import com.example.springdemo.security.UserStatusCache;
+import com.example.springdemo.service.email.EmailOutbox;
+import com.example.springdemo.util.TokenDigest;
+import io.jsonwebtoken.Claims;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking implementation of the {@link AuthService} flows for the 'reactive' profile.
+ *
+ * MongoDB access goes through {@link ReactiveUserRepository} and emails are queued in the outbox
+ * instead of waiting on the provider, so event-loop threads never block on I/O. BCrypt is CPU-bound and would stall
+ * the event loop for ~100ms per call, so encode/matches run on the bounded
+ * {@link PasswordHashingService} pool and only their completion is awaited.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveAuthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthService.class);
+
+    private final JwtService jwtService;
+    private final PasswordHashingService passwordHashingService;
+    private final ReactiveUserRepository userRepository;
+    private final EmailOutbox emailOutbox;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserExistenceFilter userExistenceFilter;
+    private final ReactiveRefreshSessionRepository refreshSessionRepository;
+    private final UserStatusCache userStatusCache;
+
+    @Value("${app.password-reset.url:http://localhost:3000/reset-password}")
+    private String passwordResetUrl;
+
+    public ReactiveAuthService(
+            JwtService jwtService,
+            PasswordHashingService passwordHashingService,
+            ReactiveUserRepository userRepository,
+            EmailOutbox emailOutbox,
+            VerifiedTokenCache verifiedTokenCache,
+            UserExistenceFilter userExistenceFilter,
+            ReactiveRefreshSessionRepository refreshSessionRepository,
+            UserStatusCache userStatusCache) {
+        this.jwtService = jwtService;
+        this.passwordHashingService = passwordHashingService;
+        this.userRepository = userRepository;
+        this.emailOutbox = emailOutbox;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userExistenceFilter = userExistenceFilter;
+        this.refreshSessionRepository = refreshSessionRepository;
+        this.userStatusCache = userStatusCache;
+    }
+
+    public Mono<AuthResponse> signup(SignupRequest signupRequest) {
+        logger.info("Processing signup request for username: {}", signupRequest.getUsername());
+
+        return existsByUsername(signupRequest.getUsername())
+                .flatMap(usernameTaken -> {
+                    // Check if username already exists
+                    if (usernameTaken) {
+                        logger.warn("Username already exists: {}", signupRequest.getUsername());
+                        return Mono.just(new AuthResponse("Username already exists"));
+                    }
+                    return existsByEmail(signupRequest.getEmail())
+                            .flatMap(emailTaken -> {
+                                // Check if email already exists
+                                if (emailTaken) {
+                                    logger.warn("Email already exists: {}", signupRequest.getEmail());
+                                    return Mono.just(new AuthResponse("Email already exists"));
+                                }
+                                return register(signupRequest);
+                            });
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> duplicateUser(signupRequest))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    logger.error("Error during user registration: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("Registration failed: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * Check whether a username is taken, skipping MongoDB when the in-memory filter rules it out
+     */
+    public Mono<Boolean> existsByUsername(String username) {
+        return userExistenceFilter.mightContainUsername(username)
+                ? userRepository.existsByUsername(username)
+                : Mono.just(false);
+    }
+
+    /**
+     * Check whether an email is taken, skipping MongoDB when the in-memory filter rules it out
+     */
+    public Mono<Boolean> existsByEmail(String email) {
+        return userExistenceFilter.mightContainEmail(email)
+                ? userRepository.existsByEmail(email)
+                : Mono.just(false);
+    }
+
+    public Mono<Boolean> isUsernameAvailable(String username) {
+        return existsByUsername(username).map(taken -> !taken);
+    }
+
+    public Mono<AuthResponse> login(LoginRequest loginRequest) {
+        logger.info("Processing login request for: {}", loginRequest.getUsernameOrEmail());
+
+        return findLoginCredentials(loginRequest.getUsernameOrEmail())
+                .flatMap(credentials -> {
+                    // Check if user is enabled
+                    if (!credentials.isEnabled()) {
+                        logger.warn("Login failed: User account disabled - {}", credentials.getUsername());
+                        return Mono.just(new AuthResponse("Account is disabled"));
+                    }
+                    return matches(loginRequest.getPassword(), credentials.getPassword())
+                            .flatMap(passwordMatches -> {
+                                if (!passwordMatches) {
+                                    logger.warn("Login failed: Invalid password for user - {}", credentials.getUsername());
+                                    return Mono.just(new AuthResponse("Invalid username/email or password"));
+                                }
+                                return issueTokens(credentials, "Login successful")
+                                        .doOnNext(response -> logger.info("User logged in successfully: {}", credentials.getUsername()));
+                            });
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.warn("Login failed: User not found - {}", loginRequest.getUsernameOrEmail());
+                    return new AuthResponse("Invalid username/email or password");
+                }))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    logger.error("Error during user login: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("Login failed: " + e.getMessage()));
+                });
+    }
+
+    public Mono<AuthResponse> refreshToken(RefreshTokenRequest refreshTokenRequest) {
+        logger.info("Processing refresh token request");
+
+        String refreshToken = refreshTokenRequest.getRefreshToken();
+        if (refreshToken == null || refreshToken.trim().isEmpty()) {
+            logger.warn("Refresh token is null or empty");
+            return Mono.just(new AuthResponse("Invalid refresh token"));
+        }
+
+        // Verify refresh token signature and expiry once and read the username from it
+        Claims claims = verifiedTokenCache.verify(refreshToken);
+        if (claims == null || claims.getSubject() == null) {
+            logger.warn("Invalid or expired refresh token");
+            return Mono.just(new AuthResponse("Invalid refresh token"));
+        }
+        String username = claims.getSubject();
+
+        String newRefreshToken = jwtService.generateRefreshToken(username);
+        String newTokenHash = TokenDigest.sha256Hex(newRefreshToken);
+        // Rotate the session's token in one find-and-modify on refresh_tokens, the only session lookup: it only
+        // succeeds if the presented token is still current, so two concurrent refreshes with it cannot both succeed
+        return refreshSessionRepository.rotate(TokenDigest.sha256Hex(refreshToken), newTokenHash, refreshTokenExpiry())
+                // The account is checked through the status cache, so repeated refreshes read the users collection
+                // at most once per staleness bound; a session that may no longer be used is revoked
+                .flatMap(session -> isCurrent(session)
+                        .flatMap(current -> current
+                                ? Mono.just(refreshed(session, refreshToken, newRefreshToken))
+                                : revokeSession(newTokenHash, username)))
+                .switchIfEmpty(Mono.fromSupplier(() -> notCurrent(username)))
+                .onErrorResume(e -> {
+                    logger.error("Error during token refresh: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("Token refresh failed: " + e.getMessage()));
+                });
+    }
+
+    private AuthResponse notCurrent(String username) {
+        logger.warn("Refresh token is revoked, already used or expired for user: {}", username);
+        return new AuthResponse("Invalid refresh token");
+    }
+
+    /**
+     * Whether the session's user is still enabled and at the session's token version. The status cache
+     * may read MongoDB on a miss, so it is consulted off the event loop
+     */
+    private Mono<Boolean> isCurrent(RefreshSession session) {
+        return Mono.fromCallable(() -> userStatusCache.isCurrent(session.getUserId(), session.getTokenVersion()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Delete a refresh session whose user may no longer be issued tokens
+     */
+    private Mono<AuthResponse> revokeSession(String tokenHash, String username) {
+        logger.warn("Token refresh failed: Account disabled or credentials changed for user: {}", username);
+        return refreshSessionRepository.deleteByTokenHash(tokenHash)
+                .thenReturn(new AuthResponse("Invalid refresh token"));
+    }
+
+    private AuthResponse refreshed(RefreshSession session, String refreshToken, String newRefreshToken) {
+        // The old token must not be served from the cache anymore
+        verifiedTokenCache.invalidate(refreshToken);
+        logger.info("Token refreshed successfully for user: {}", session.getUsername());
+        return new AuthResponse(
+            jwtService.generateAccessToken(session),
+            newRefreshToken,
+            session.getUsername(),
+            session.getEmail(),
+            session.getFullName(),
+            "Token refreshed successfully"
+        );
+    }
+
+    public Mono<AuthResponse> logout(String accessToken, RefreshTokenRequest refreshTokenRequest) {
+        logger.info("Processing logout request");
+
+        String refreshToken = refreshTokenRequest.getRefreshToken();
+
+        // Drop both tokens from the verified-token cache whatever happens next
+        verifiedTokenCache.invalidate(accessToken);
+        verifiedTokenCache.invalidate(refreshToken);
+
+        Claims claims = jwtService.extractValidClaims(refreshToken);
+        if (claims == null) {
+            logger.warn("Logout with invalid or expired refresh token");
+            return Mono.just(new AuthResponse("Invalid refresh token"));
+        }
+
+        // Revoke this device's session, only if the token is still the current one
+        return refreshSessionRepository.deleteByTokenHash(TokenDigest.sha256Hex(refreshToken))
+                .map(revoked -> {
+                    if (revoked == 0) {
+                        logger.warn("Logout with a refresh token that is not current for user: {}", claims.getSubject());
+                        return new AuthResponse("Invalid refresh token");
+                    }
+                    logger.info("User logged out successfully: {}", claims.getSubject());
+                    return new AuthResponse("Logged out successfully");
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error during logout: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("Logout failed: " + e.getMessage()));
+                });
+    }
+
+    public Mono<AuthResponse> logoutAll(String accessToken, RefreshTokenRequest refreshTokenRequest) {
+        logger.info("Processing logout from all sessions request");
+
+        String refreshToken = refreshTokenRequest.getRefreshToken();
+
+        // Drop both tokens from the verified-token cache whatever happens next
+        verifiedTokenCache.invalidate(accessToken);
+        verifiedTokenCache.invalidate(refreshToken);
+
+        Claims claims = jwtService.extractValidClaims(refreshToken);
+        if (claims == null) {
+            logger.warn("Logout from all sessions with invalid or expired refresh token");
+            return Mono.just(new AuthResponse("Invalid refresh token"));
+        }
+
+        // Only a current session may revoke the others
+        return refreshSessionRepository.findByTokenHash(TokenDigest.sha256Hex(refreshToken))
+                .flatMap(session -> refreshSessionRepository.deleteByUserId(session.getUserId())
+                        .map(revoked -> {
+                            logger.info("User logged out of {} sessions: {}", revoked, session.getUsername());
+                            return new AuthResponse("Logged out of all sessions successfully");
+                        }))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.warn("Logout from all sessions with a refresh token that is not current for user: {}", claims.getSubject());
+                    return new AuthResponse("Invalid refresh token");
+                }))
+                .onErrorResume(e -> {
+                    logger.error("Error during logout from all sessions: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("Logout failed: " + e.getMessage()));
+                });
+    }
+
+    public Mono<AuthResponse> forgotPassword(ForgotPasswordRequest forgotPasswordRequest) {
+        String email = forgotPasswordRequest.getEmail();
+        logger.info("Processing forgot password request for email: {}", email);
+
+        return userRepository.findByEmail(email)
+                .flatMap(user -> {
+                    // Check if user is enabled
+                    if (!user.isEnabled()) {
+                        logger.warn("Forgot password request for disabled account: {}", email);
+                        return Mono.just(new AuthResponse("If the email exists, a password reset link has been sent"));
+                    }
+
+                    // Generate and store password reset token
+                    String resetToken = jwtService.generatePasswordResetToken(user.getEmail());
+
+                    String resetUrl = passwordResetUrl + "?token=" + resetToken;
+                    return userRepository.updatePasswordResetToken(user.getId(), resetToken, LocalDateTime.now().plusHours(1))
+                            .flatMap(updated -> emailOutbox.enqueueAsync(
+                                    EmailMessage.passwordReset(user.getEmail(), user.getUsername(), resetToken, resetUrl)))
+                            .then(Mono.fromSupplier(() -> {
+                                logger.info("Password reset email queued for: {}", email);
+                                return new AuthResponse("If the email exists, a password reset link has been sent");
+                            }));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    // Don't reveal if email exists or not for security reasons
+                    logger.info("Forgot password request for non-existent email: {}", email);
+                    return new AuthResponse("If the email exists, a password reset link has been sent");
+                }))
+                .onErrorResume(e -> {
+                    logger.error("Error during forgot password process: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("An error occurred. Please try again later."));
+                });
+    }
+
+    public Mono<AuthResponse> resetPassword(ResetPasswordRequest resetPasswordRequest) {
+        logger.info("Processing password reset request");
+
+        String resetToken = resetPasswordRequest.getResetToken();
+        String newPassword = resetPasswordRequest.getNewPassword();
+
+        // Validate passwords match
+        if (!newPassword.equals(resetPasswordRequest.getConfirmPassword())) {
+            logger.warn("Password reset failed: passwords do not match");
+            return Mono.just(new AuthResponse("Passwords do not match"));
+        }
+
+        // Validate reset token and extract email from it
+        String email = jwtService.extractPasswordResetEmail(resetToken);
+        if (email == null) {
+            logger.warn("Password reset failed: invalid reset token");
+            return Mono.just(new AuthResponse("Invalid or expired reset token"));
+        }
+
+        return userRepository.findByEmail(email)
+                .flatMap(user -> {
+                    // Check if user is enabled
+                    if (!user.isEnabled()) {
+                        logger.warn("Password reset failed: user account disabled: {}", email);
+                        return Mono.just(new AuthResponse("Account is disabled"));
+                    }
+
+                    // Verify stored reset token matches
+                    if (!resetToken.equals(user.getPasswordResetToken())) {
+                        logger.warn("Password reset failed: token mismatch for user: {}", user.getUsername());
+                        return Mono.just(new AuthResponse("Invalid reset token"));
+                    }
+
+                    // Check if token is expired
+                    if (user.getPasswordResetTokenExpiry() == null ||
+                        user.getPasswordResetTokenExpiry().isBefore(LocalDateTime.now())) {
+                        logger.warn("Password reset failed: token expired for user: {}", user.getUsername());
+                        return Mono.just(new AuthResponse("Reset token has expired"));
+                    }
+
+                    // Update password and consume the reset token in one find-and-modify, so the token works once.
+                    // This also invalidates access tokens and the refresh token issued with the old password
+                    return encode(newPassword)
+                            .flatMap(encodedPassword -> userRepository.resetPassword(email, resetToken, encodedPassword))
+                            .flatMap(saved -> refreshSessionRepository.deleteByUserId(saved.getId()).thenReturn(saved))
+                            .map(saved -> {
+                                logger.info("Password reset successfully for user: {}", saved.getUsername());
+                                return new AuthResponse(null, null, saved.getUsername(), saved.getEmail(), saved.getFullName(), "Password reset successfully");
+                            })
+                            .switchIfEmpty(Mono.fromSupplier(() -> {
+                                logger.warn("Password reset failed: token already used for email: {}", email);
+                                return new AuthResponse("Invalid reset token");
+                            }));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.warn("Password reset failed: user not found for email: {}", email);
+                    return new AuthResponse("Invalid reset token");
+                }))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    logger.error("Error during password reset: {}", e.getMessage(), e);
+                    return Mono.just(new AuthResponse("Password reset failed: " + e.getMessage()));
+                });
+    }
+
+    public Mono<User> findByUsernameOrEmail(String usernameOrEmail) {
+        return userRepository.findByUsername(usernameOrEmail)
+                .switchIfEmpty(Mono.defer(() -> userRepository.findByEmail(usernameOrEmail)));
+    }
+
+    /**
+     * Resolve username or email with one projected query; a username match wins over an email match
+     */
+    private Mono<LoginCredentials> findLoginCredentials(String usernameOrEmail) {
+        return userRepository.findLoginCredentials(usernameOrEmail)
+                .collectList()
+                .flatMap(matches -> Mono.justOrEmpty(matches.stream()
+                        .filter(credentials -> usernameOrEmail.equals(credentials.getUsername()))
+                        .findFirst()
+                        .or(() -> matches.stream().findFirst())));
+    }
+
+    /**
+     * Map an insert rejected by a unique index, i.e. a username or email taken by a concurrent signup
+     * or on another node since the filter last saw it. The driver's error does not identify the
+     * violated key reliably, so the taken value is looked up again, username first as in the pre-checks
+     */
+    private Mono<AuthResponse> duplicateUser(SignupRequest signupRequest) {
+        return userRepository.existsByUsername(signupRequest.getUsername())
+                .map(usernameTaken -> {
+                    if (usernameTaken) {
+                        logger.warn("Username already exists: {}", signupRequest.getUsername());
+                        userExistenceFilter.add(signupRequest.getUsername(), null);
+                        return new AuthResponse("Username already exists");
+                    }
+                    logger.warn("Email already exists: {}", signupRequest.getEmail());
+                    userExistenceFilter.add(null, signupRequest.getEmail());
+                    return new AuthResponse("Email already exists");
+                });
+    }
+
+    private Mono<AuthResponse> register(SignupRequest signupRequest) {
+        return encode(signupRequest.getPassword())
+                .flatMap(encodedPassword -> {
+                    User user = new User();
+                    user.setUsername(signupRequest.getUsername());
+                    user.setEmail(signupRequest.getEmail());
+                    user.setPassword(encodedPassword);
+                    user.setFullName(signupRequest.getFullName());
+                    user.setRole("USER");
+                    user.setEnabled(true);
+                    user.setCreatedAt(LocalDateTime.now());
+                    user.setUpdatedAt(LocalDateTime.now());
+                    // Assign the id up front so the access token can carry it and the user is written once
+                    user.setId(new ObjectId().toHexString());
+                    return userRepository.insert(user)
+                            .doOnNext(saved -> userExistenceFilter.add(saved.getUsername(), saved.getEmail()))
+                            .flatMap(saved -> issueTokens(LoginCredentials.from(saved), "User registered successfully"));
+                })
+                // Queue the welcome email; the outbox worker delivers it
+                .flatMap(response -> emailOutbox.enqueueAsync(EmailMessage.welcome(response.getEmail(), response.getUsername()))
+                        .onErrorResume(e -> {
+                            logger.warn("Failed to queue welcome email to {}: {}", response.getEmail(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(response))
+                .doOnNext(response -> logger.info("User registered successfully: {}", response.getUsername()));
+    }
+
+    /**
+     * Generate an access token and open a new refresh session (one per signed-in device).
+     * Only the refresh token's hash is stored
+     */
+    private Mono<AuthResponse> issueTokens(LoginCredentials credentials, String message) {
+        String token = jwtService.generateAccessToken(credentials);
+        String refreshToken = jwtService.generateRefreshToken(credentials.getUsername());
+        RefreshSession session = RefreshSession.of(credentials, TokenDigest.sha256Hex(refreshToken), refreshTokenExpiry());
+
+        return refreshSessionRepository.insert(session)
+                .map(saved -> new AuthResponse(
+                    token,
+                    refreshToken,
+                    credentials.getUsername(),
+                    credentials.getEmail(),
+                    credentials.getFullName(),
+                    message
+                ));
+    }
+
+    private LocalDateTime refreshTokenExpiry() {
+        return LocalDateTime.now().plus(Duration.ofMillis(jwtService.getRefreshExpiration()));
+    }
+
+    private Mono<String> encode(String rawPassword) {
+        return Mono.fromFuture(() -> passwordHashingService.encodeAsync(rawPassword));
+    }
+
+    private Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return Mono.fromFuture(() -> passwordHashingService.matchesAsync(rawPassword, encodedPassword));
+    }
+}
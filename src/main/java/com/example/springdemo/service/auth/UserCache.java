@@ -0,0 +1,187 @@
+package com.example.springdemo.service.auth;
+
+import com.example.springdemo.model.auth.LoginCredentials;
+import com.example.springdemo.model.auth.User;
+import com.example.springdemo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Near cache of {@link User} documents in front of {@link UserRepository}, looked up by username or email.
+ *
+ * Reads go through the cache and load from MongoDB on a miss (absent users are not cached). Writes go
+ * through the targeted update methods here, which persist a $set (or find-and-modify) and then apply
+ * the same change to the cached entry, so this node never serves its own stale data. Other nodes may hold an older copy for at most expire-after-write; callers
+ * comparing stored tokens should {@link #reload(String)} before rejecting a mismatch.
+ * Login never uses the cache: the password hash, enabled flag and token version it checks are always read
+ * from MongoDB, so a password reset or disable on another node takes effect immediately.
+ * Entries are defensive copies since callers mutate users before saving.
+ * Stats are exported as cache.* meters (cache=users, cache=userEmails).
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> byUsername;
+    private final Cache<String, String> usernameByEmail;
+
+    public UserCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.auth.user-cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.usernameByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, usernameByEmail, "userEmails");
+    }
+
+    /**
+     * Find user by username, loading it on a miss
+     * @return a copy the caller may modify, or null if no such user exists
+     */
+    public User findByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        User cached = byUsername.get(username, key -> userRepository.findByUsername(key).orElse(null));
+        return cached != null ? new User(cached) : null;
+    }
+
+    /**
+     * Find user by email, loading it on a miss
+     * @return a copy the caller may modify, or null if no such user exists
+     */
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        String username = usernameByEmail.getIfPresent(email);
+        if (username != null) {
+            User cached = byUsername.getIfPresent(username);
+            if (cached != null && email.equals(cached.getEmail())) {
+                return new User(cached);
+            }
+        }
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        put(user);
+        return new User(user);
+    }
+
+    /**
+     * Resolve the credentials login needs for a username or email.
+     * Always issues a single projected $or query instead of a username lookup followed by an email
+     * lookup, bypassing the cache so credentials are never stale. The partial documents it returns
+     * are not cached. As before, a username match wins over an email match.
+     * @return the credentials, or null if no user matches
+     */
+    public LoginCredentials findLoginCredentials(String usernameOrEmail) {
+        if (usernameOrEmail == null) {
+            return null;
+        }
+
+        List<LoginCredentials> matches = userRepository.findLoginCredentials(usernameOrEmail);
+        if (matches.isEmpty()) {
+            return null;
+        }
+        return matches.stream()
+                .filter(credentials -> usernameOrEmail.equals(credentials.getUsername()))
+                .findFirst()
+                .orElse(matches.get(0));
+    }
+
+    /**
+     * Store a password reset token with a single $set (write-through)
+     */
+    public void updatePasswordResetToken(User user, String resetToken, LocalDateTime expiry) {
+        userRepository.updatePasswordResetToken(user.getId(), resetToken, expiry);
+        patch(user.getUsername(), cached -> {
+            cached.setPasswordResetToken(resetToken);
+            cached.setPasswordResetTokenExpiry(expiry);
+        });
+    }
+
+    /**
+     * Atomically consume a reset token and set the new password, caching the updated user
+     * @return a copy of the updated user, or null if the token was not current or has expired
+     */
+    public User resetPassword(String email, String resetToken, String encodedPassword) {
+        User updated = userRepository.resetPassword(email, resetToken, encodedPassword);
+        if (updated == null) {
+            return null;
+        }
+        put(updated);
+        return new User(updated);
+    }
+
+    /**
+     * Insert a new user and cache it; never overwrites an existing document
+     * @throws org.springframework.dao.DuplicateKeyException if the username or email is taken
+     */
+    public User insert(User user) {
+        User inserted = userRepository.insert(user);
+        put(inserted);
+        return new User(inserted);
+    }
+
+    /**
+     * Re-read a user from MongoDB, replacing whatever this node had cached
+     * @return a copy the caller may modify, or null if the user no longer exists
+     */
+    public User reload(String username) {
+        byUsername.invalidate(username);
+        return findByUsername(username);
+    }
+
+    /**
+     * Drop a user from the cache
+     */
+    public void evict(User user) {
+        if (user.getUsername() != null) {
+            byUsername.invalidate(user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            usernameByEmail.invalidate(user.getEmail());
+        }
+    }
+
+    private void patch(String username, Consumer<User> change) {
+        User cached = byUsername.getIfPresent(username);
+        if (cached != null) {
+            // Replace rather than mutate: readers may be copying the current entry
+            User copy = new User(cached);
+            change.accept(copy);
+            copy.setUpdatedAt(LocalDateTime.now());
+            byUsername.put(username, copy);
+        }
+    }
+
+    private void put(User user) {
+        byUsername.put(user.getUsername(), new User(user));
+        usernameByEmail.put(user.getEmail(), user.getUsername());
+    }
+}
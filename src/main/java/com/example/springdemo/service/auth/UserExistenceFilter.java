@@ -0,0 +1,163 @@
+package com.example.springdemo.service.auth;
+
+import com.example.springdemo.util.ConcurrentBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters of taken usernames and emails, used to skip the uniqueness queries at signup.
+ *
+ * A "not taken" answer is definite and needs no database round trip; a "maybe taken" answer must be
+ * confirmed against MongoDB. The filters are rebuilt from the users collection once the application
+ * is ready and kept current as users are created. Until the first rebuild completes every value is
+ * reported as maybe taken. Other nodes' signups are not seen here, so the unique indexes created in
+ * MongoConfig stay the source of truth and a DuplicateKeyException on insert must still be handled.
+ * Answers are exported as auth.user.filter.checks{field, result}.
+ */
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExistenceFilter.class);
+    private static final String USERS_COLLECTION = "users";
+
+    private final MongoTemplate mongoTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Counter usernameAbsent;
+    private final Counter usernameMaybe;
+    private final Counter emailAbsent;
+    private final Counter emailMaybe;
+
+    private volatile ConcurrentBloomFilter usernames;
+    private volatile ConcurrentBloomFilter emails;
+    // Filters being rebuilt; users created meanwhile are added to them too
+    private volatile ConcurrentBloomFilter pendingUsernames;
+    private volatile ConcurrentBloomFilter pendingEmails;
+
+    public UserExistenceFilter(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.user-filter.expected-users:1000000}") long expectedInsertions,
+            @Value("${app.auth.user-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.mongoTemplate = mongoTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+
+        this.usernameAbsent = checks(meterRegistry, "username", "absent");
+        this.usernameMaybe = checks(meterRegistry, "username", "maybe");
+        this.emailAbsent = checks(meterRegistry, "email", "absent");
+        this.emailMaybe = checks(meterRegistry, "email", "maybe");
+        Gauge.builder("auth.user.filter.false.positive.probability", this,
+                        f -> f.usernames != null ? f.usernames.expectedFalsePositiveProbability() : 1.0)
+                .description("Expected false positive probability of the username filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuild both filters from the users collection in the background
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            // Leave headroom so the filters stay accurate while the user base grows
+            long capacity = Math.max(expectedInsertions, 2 * mongoTemplate.estimatedCount(USERS_COLLECTION));
+            ConcurrentBloomFilter newUsernames = new ConcurrentBloomFilter(capacity, falsePositiveProbability);
+            ConcurrentBloomFilter newEmails = new ConcurrentBloomFilter(capacity, falsePositiveProbability);
+            pendingUsernames = newUsernames;
+            pendingEmails = newEmails;
+
+            Query query = new Query();
+            query.fields().include("username", "email");
+            try (Stream<Document> users = mongoTemplate.stream(query, Document.class, USERS_COLLECTION)) {
+                users.forEach(user -> {
+                    String username = user.getString("username");
+                    String email = user.getString("email");
+                    if (username != null) {
+                        newUsernames.put(username);
+                    }
+                    if (email != null) {
+                        newEmails.put(email);
+                    }
+                });
+            }
+
+            usernames = newUsernames;
+            emails = newEmails;
+            logger.info("User existence filter rebuilt with {} users in {}ms",
+                    newUsernames.getInsertions(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.warn("Could not rebuild user existence filter, signup checks will query MongoDB: {}", e.getMessage());
+        } finally {
+            pendingUsernames = null;
+            pendingEmails = null;
+        }
+    }
+
+    /**
+     * @return false if the username is definitely not taken, true if MongoDB must be asked
+     */
+    public boolean mightContainUsername(String username) {
+        return check(usernames, username, usernameAbsent, usernameMaybe);
+    }
+
+    /**
+     * @return false if the email is definitely not taken, true if MongoDB must be asked
+     */
+    public boolean mightContainEmail(String email) {
+        return check(emails, email, emailAbsent, emailMaybe);
+    }
+
+    /**
+     * Record a username and email as taken, after a user has been inserted or an insert hit the unique index
+     */
+    public void add(String username, String email) {
+        // Read the pending filter before the live one: a rebuild swaps in the new filter before clearing
+        // pending, so a value can never land only in a filter that is about to be discarded
+        put(pendingUsernames, usernames, username);
+        put(pendingEmails, emails, email);
+    }
+
+    private static boolean check(ConcurrentBloomFilter filter, String value, Counter absent, Counter maybe) {
+        if (filter == null || value == null || filter.mightContain(value)) {
+            maybe.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    private static void put(ConcurrentBloomFilter pending, ConcurrentBloomFilter live, String value) {
+        if (value == null) {
+            return;
+        }
+        if (live != null) {
+            live.put(value);
+        }
+        if (pending != null) {
+            pending.put(value);
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String field, String result) {
+        return Counter.builder("auth.user.filter.checks")
+                .description("Signup uniqueness checks answered by the in-memory filter (absent) or left to MongoDB (maybe)")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.springdemo.service.auth;
+
+import com.example.springdemo.util.TokenDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified JWT claims keyed by the SHA-256 digest of the token.
+ *
+ * A hit skips the HMAC check and claim parsing done by {@link JwtService#extractValidClaims(String)}.
+ * Each entry expires at the token's own exp claim, so a cached token is never accepted past its
+ * lifetime, and tokens are evicted explicitly on logout and refresh rotation. Only the digest is
+ * held as key, never the raw token. Hit ratio is exported as cache.* meters (cache=verifiedTokens)
+ * and verification latency of misses as auth.token.verification.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "verifiedTokens";
+
+    private final JwtService jwtService;
+    private final Cache<ByteBuffer, Claims> cache;
+    private final Timer verificationTimer;
+
+    public VerifiedTokenCache(
+            JwtService jwtService,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.token-cache.maximum-size:10000}") long maximumSize) {
+        this.jwtService = jwtService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        this.verificationTimer = Timer.builder("auth.token.verification")
+                .description("Time spent verifying JWT signatures and parsing claims on cache misses")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the verified claims of a token, verifying and caching them on first use
+     * @return the claims, or null if the token is malformed, tampered with or expired (never cached)
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        ByteBuffer key = digest(token);
+        Claims claims = cache.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+
+        long start = System.nanoTime();
+        claims = jwtService.extractValidClaims(token);
+        verificationTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        if (claims != null) {
+            cache.put(key, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Forget a token, e.g. on logout or when a refresh token has been rotated
+     */
+    public void invalidate(String token) {
+        if (token != null && !token.isEmpty()) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    /**
+     * Expires each entry at the exp claim of its token; reads never extend the lifetime
+     */
+    private static final class TokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return remainingMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(remainingMillis) : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(TokenDigest.sha256(token));
+    }
+}
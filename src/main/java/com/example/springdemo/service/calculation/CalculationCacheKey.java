@@ -0,0 +1,51 @@
+package com.example.springdemo.service.calculation;
+
+/**
+ * Cache key for a single calculation.
+ * Operands are stored as raw IEEE 754 bit patterns so that keys compare exactly
+ * (e.g. 0.0 and -0.0 are distinct) without holding boxed doubles.
+ */
+public final class CalculationCacheKey {
+
+    private final CalculationOperation operation;
+    private final long number1Bits;
+    private final long number2Bits;
+
+    public CalculationCacheKey(CalculationOperation operation, double number1, double number2) {
+        this.operation = operation;
+        this.number1Bits = Double.doubleToRawLongBits(number1);
+        this.number2Bits = Double.doubleToRawLongBits(number2);
+    }
+
+    public CalculationOperation getOperation() {
+        return operation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CalculationCacheKey)) return false;
+
+        CalculationCacheKey that = (CalculationCacheKey) o;
+        return operation == that.operation
+                && number1Bits == that.number1Bits
+                && number2Bits == that.number2Bits;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = operation.hashCode();
+        result = 31 * result + Long.hashCode(number1Bits);
+        result = 31 * result + Long.hashCode(number2Bits);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CalculationCacheKey{" +
+                "operation=" + operation +
+                ", number1=" + Double.longBitsToDouble(number1Bits) +
+                ", number2=" + Double.longBitsToDouble(number2Bits) +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.springdemo.service.calculation;
+
+import com.example.springdemo.constant.ApiConstants;
+
+/**
+ * Allocation-free arithmetic core working on primitive doubles.
+ * Callers box values only when building API responses.
+ */
+public final class CalculationEngine {
+
+    // Operand bounds, matching the validation on CalculationDto
+    public static final double MIN_OPERAND = -999999999.0;
+    public static final double MAX_OPERAND = 999999999.0;
+
+    private CalculationEngine() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Apply the operation to two operands
+     * @throws IllegalArgumentException on division by zero
+     */
+    public static double apply(CalculationOperation operation, double number1, double number2) {
+        switch (operation) {
+            case ADDITION:
+                return number1 + number2;
+            case SUBTRACTION:
+                return number1 - number2;
+            case MULTIPLICATION:
+                return number1 * number2;
+            case DIVISION:
+                if (number2 == 0) {
+                    throw new IllegalArgumentException(ApiConstants.DIVISION_BY_ZERO);
+                }
+                return number1 / number2;
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    /**
+     * Whether an operand lies within the accepted range
+     */
+    public static boolean isInRange(double number) {
+        return number >= MIN_OPERAND && number <= MAX_OPERAND;
+    }
+
+    /**
+     * Whether the operands are valid for the operation (i.e. apply would not throw)
+     */
+    public static boolean isDefined(CalculationOperation operation, double number2) {
+        return operation != CalculationOperation.DIVISION || number2 != 0;
+    }
+
+    /**
+     * Validate operands for an operation
+     * @return an error message, or null if the operands are valid
+     */
+    public static String validate(CalculationOperation operation, double number1, double number2) {
+        if (!isInRange(number1)) {
+            return "First number must be between -999999999 and 999999999";
+        }
+        if (!isInRange(number2)) {
+            return "Second number must be between -999999999 and 999999999";
+        }
+        if (!isDefined(operation, number2)) {
+            return ApiConstants.DIVISION_BY_ZERO;
+        }
+        return null;
+    }
+
+    /**
+     * Evaluate a batch in a single pass over primitive arrays.
+     * Entries whose operation is null are skipped; callers must reject invalid
+     * operands (see {@link #validate}) beforehand.
+     */
+    public static void applyAll(CalculationOperation[] operations, double[] numbers1, double[] numbers2, double[] results) {
+        for (int i = 0; i < operations.length; i++) {
+            CalculationOperation operation = operations[i];
+            if (operation == null) {
+                continue;
+            }
+            double number1 = numbers1[i];
+            double number2 = numbers2[i];
+            switch (operation) {
+                case ADDITION:
+                    results[i] = number1 + number2;
+                    break;
+                case SUBTRACTION:
+                    results[i] = number1 - number2;
+                    break;
+                case MULTIPLICATION:
+                    results[i] = number1 * number2;
+                    break;
+                case DIVISION:
+                    results[i] = number1 / number2;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported operation: " + operation);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.springdemo.service.calculation;
+
+import com.example.springdemo.dto.CalculationHistoryPageDto;
+import com.example.springdemo.model.calculation.CalculationRecord;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads a user's calculation history page by page, newest first.
+ *
+ * Pages use keyset pagination on (createdAt, _id) instead of skip/offset: the cursor carries the
+ * sort key of the last entry returned, and the next page starts strictly after it. With the
+ * {userId: 1, createdAt: -1, _id: -1} index every page is one index seek plus limit + 1 documents,
+ * however deep the caller has scrolled. _id breaks ties between calculations stored in the same
+ * millisecond, so no entry is skipped or repeated across pages. Only the fields returned to the
+ * client are fetched.
+ */
+@Component
+public class CalculationHistoryReader {
+
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final MongoTemplate mongoTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public CalculationHistoryReader(
+            MongoTemplate mongoTemplate,
+            @Value("${app.calculation.history.page-size:50}") int defaultPageSize,
+            @Value("${app.calculation.history.max-page-size:500}") int maxPageSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Fetch the page after the cursor
+     * @param cursor nextCursor of the previous page, or null for the newest entries
+     * @param limit page size, or null for the default page size
+     * @throws IllegalArgumentException if the cursor is malformed or the limit is out of range
+     */
+    public CalculationHistoryPageDto page(String userId, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageSize);
+        }
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursor != null && !cursor.isEmpty()) {
+            Position after = decode(cursor);
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.id()));
+        }
+
+        // One extra document tells whether another page follows without a count
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(pageSize + 1);
+        query.fields().include("operation", "number1", "number2", "expression", "result", "createdAt");
+        List<CalculationRecord> records = mongoTemplate.find(query, CalculationRecord.class);
+
+        boolean hasMore = records.size() > pageSize;
+        int count = Math.min(records.size(), pageSize);
+        List<CalculationHistoryPageDto.Entry> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new CalculationHistoryPageDto.Entry(records.get(i)));
+        }
+        String nextCursor = hasMore ? encode(records.get(count - 1)) : null;
+        return new CalculationHistoryPageDto(items, nextCursor);
+    }
+
+    private static String encode(CalculationRecord last) {
+        String position = last.getCreatedAt().toString() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            if (separator > 0) {
+                String id = position.substring(separator + 1);
+                if (ObjectId.isValid(id)) {
+                    return new Position(LocalDateTime.parse(position.substring(0, separator)), new ObjectId(id));
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    private record Position(LocalDateTime createdAt, ObjectId id) {}
+}
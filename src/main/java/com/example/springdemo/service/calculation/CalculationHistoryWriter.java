@@ -0,0 +1,198 @@
+package com.example.springdemo.service.calculation;
+
+import com.example.springdemo.model.calculation.CalculationRecord;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for the calculations collection.
+ *
+ * Request threads only append to a lock-free queue bounded by an atomic counter; when it is full the
+ * record is dropped rather than slowing the request down. A single flusher thread drains the queue
+ * as unordered bulk inserts, as soon as batch-size records are waiting or at least every flush interval.
+ * History is best effort: records still buffered when the node stops abruptly, and batches MongoDB
+ * rejects, are lost and counted.
+ *
+ * Exported as calculation.history.queue.size, calculation.history.written,
+ * calculation.history.dropped{reason=overflow|write_failed}, calculation.history.batch.size
+ * and calculation.history.flush.
+ */
+@Component
+public class CalculationHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculationHistoryWriter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration shutdownTimeout;
+
+    private final ConcurrentLinkedQueue<CalculationRecord> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() is O(n), so the bound is tracked separately
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter overflowDrops;
+    private final Counter writeFailureDrops;
+    private final DistributionSummary batchSizes;
+    private final Timer flushTimer;
+
+    public CalculationHistoryWriter(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.calculation.history.enabled:true}") boolean enabled,
+            @Value("${app.calculation.history.capacity:100000}") int capacity,
+            @Value("${app.calculation.history.batch-size:1000}") int batchSize,
+            @Value("${app.calculation.history.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${app.calculation.history.shutdown-timeout:5s}") Duration shutdownTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("calculation.history.queue.size", pending, AtomicInteger::get)
+                .description("Calculation records buffered and not yet written")
+                .register(meterRegistry);
+        this.written = Counter.builder("calculation.history.written")
+                .description("Calculation records written to MongoDB")
+                .register(meterRegistry);
+        this.overflowDrops = drops(meterRegistry, "overflow");
+        this.writeFailureDrops = drops(meterRegistry, "write_failed");
+        this.batchSizes = DistributionSummary.builder("calculation.history.batch.size")
+                .description("Calculation records per bulk insert")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("calculation.history.flush")
+                .description("Time spent on one bulk insert of calculation records")
+                .register(meterRegistry);
+
+        this.flusher = new CustomizableThreadFactory("calculation-history-").newThread(this::run);
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            this.flusher.start();
+        }
+    }
+
+    /**
+     * Buffer a record for writing; never blocks
+     * @return false if the buffer was full and the record was dropped
+     */
+    public boolean record(CalculationRecord record) {
+        if (!enabled || !running) {
+            return false;
+        }
+        int size = pending.incrementAndGet();
+        if (size > capacity) {
+            pending.decrementAndGet();
+            overflowDrops.increment();
+            return false;
+        }
+        queue.offer(record);
+        if (size == batchSize) {
+            // A full batch is waiting; don't let it sit until the next interval
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pending.get() > 0) {
+            logger.warn("{} calculation records were not written before shutdown", pending.get());
+        }
+    }
+
+    private void run() {
+        List<CalculationRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (pending.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flushAvailable(batch);
+        }
+        // Final drain of whatever was buffered before shutdown
+        flushAvailable(batch);
+    }
+
+    private void flushAvailable(List<CalculationRecord> batch) {
+        while (true) {
+            CalculationRecord record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending.addAndGet(-batch.size());
+            int drained = batch.size();
+            insert(batch);
+            batch.clear();
+            if (drained < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void insert(List<CalculationRecord> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            BulkWriteResult result = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CalculationRecord.class)
+                    .insert(batch)
+                    .execute();
+            written.increment(result.getInsertedCount());
+        } catch (BulkOperationException e) {
+            // Unordered: everything but the failed documents was inserted
+            int inserted = e.getResult().getInsertedCount();
+            written.increment(inserted);
+            writeFailureDrops.increment(batch.size() - inserted);
+            logger.warn("{} of {} calculation records could not be written: {}",
+                    batch.size() - inserted, batch.size(), e.getMessage());
+        } catch (Exception e) {
+            writeFailureDrops.increment(batch.size());
+            logger.warn("Dropped {} calculation records: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Counter drops(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("calculation.history.dropped")
+                .description("Calculation records discarded instead of written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.springdemo.service.calculation;
+
+import java.util.Locale;
+
+/**
+ * Binary arithmetic operations supported by the calculator
+ */
+public enum CalculationOperation {
+
+    ADDITION("addition", "add"),
+    SUBTRACTION("subtraction", "subtract"),
+    MULTIPLICATION("multiplication", "multiply"),
+    DIVISION("division", "divide");
+
+    private static final CalculationOperation[] VALUES = values();
+
+    private final String label;
+    private final String verb;
+
+    CalculationOperation(String label, String verb) {
+        this.label = label;
+        this.verb = verb;
+    }
+
+    /**
+     * Resolve an operation from its label ("addition") or verb ("add"), ignoring case
+     * @return the operation, or null if the name is not recognised
+     */
+    public static CalculationOperation fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (CalculationOperation operation : VALUES) {
+            if (operation.label.equals(normalized) || operation.verb.equals(normalized)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Name of the operation as exposed in API responses and metric tags
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.springdemo.service.calculation;
+
+import com.example.springdemo.dto.CalculationResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated cache for calculation results keyed by (operation, operand bits).
+ * Hits, misses and evictions are tracked per operation and exported through Micrometer
+ * as calculation.cache.* meters.
+ */
+@Component
+public class CalculationResultCache {
+
+    private static final String CACHE_NAME = "calculationResults";
+
+    private final Cache<CalculationCacheKey, CalculationResponseDto> cache;
+    private final Map<CalculationOperation, Counter> hits = new EnumMap<>(CalculationOperation.class);
+    private final Map<CalculationOperation, Counter> misses = new EnumMap<>(CalculationOperation.class);
+    private final Map<CalculationOperation, Counter> evictions = new EnumMap<>(CalculationOperation.class);
+
+    public CalculationResultCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.calculation.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.calculation.cache.expire-after-write:600s}") Duration expireAfterWrite) {
+
+        for (CalculationOperation operation : CalculationOperation.values()) {
+            hits.put(operation, Counter.builder("calculation.cache.requests")
+                    .description("Calculation result cache lookups")
+                    .tag("operation", operation.getLabel())
+                    .tag("result", "hit")
+                    .register(meterRegistry));
+            misses.put(operation, Counter.builder("calculation.cache.requests")
+                    .description("Calculation result cache lookups")
+                    .tag("operation", operation.getLabel())
+                    .tag("result", "miss")
+                    .register(meterRegistry));
+            evictions.put(operation, Counter.builder("calculation.cache.evictions")
+                    .description("Calculation results evicted from the cache")
+                    .tag("operation", operation.getLabel())
+                    .register(meterRegistry));
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .evictionListener((CalculationCacheKey key, CalculationResponseDto value, RemovalCause cause) -> {
+                    if (key != null) {
+                        evictions.get(key.getOperation()).increment();
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached result for the given calculation, computing and caching it on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    public CalculationResponseDto get(CalculationOperation operation, double number1, double number2,
+                                      Supplier<CalculationResponseDto> loader) {
+        CalculationCacheKey key = new CalculationCacheKey(operation, number1, number2);
+
+        CalculationResponseDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.get(operation).increment();
+            return cached;
+        }
+
+        misses.get(operation).increment();
+        CalculationResponseDto computed = loader.get();
+        cache.put(key, computed);
+        return computed;
+    }
+
+    /**
+     * Remove all cached results
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
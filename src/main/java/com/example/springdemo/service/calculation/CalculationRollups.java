@@ -0,0 +1,315 @@
+package com.example.springdemo.service.calculation;
+
+import com.example.springdemo.dto.CalculationStatsDto;
+import com.example.springdemo.model.calculation.CalculationRollup;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-minute calculation statistics by operation, pre-aggregated in memory and upserted into the
+ * calculation_rollups collection so reports never scan the raw history.
+ *
+ * Each minute gets a window of buckets, one per operation, whose count and sums are striped
+ * LongAdder/DoubleAdder cells and whose extremes are DoubleAccumulators; recording a calculation is a
+ * handful of uncontended cell updates with no allocation. Every flush interval the accumulated deltas
+ * are taken with sumThenReset and applied as $inc/$min/$max upserts in one unordered bulk write, so a
+ * minute may be flushed any number of times. Deltas of a failed write are added back for the next
+ * flush. A window is dropped once its minute is more than a minute old and its last deltas are stored.
+ * The flush runs on its own scheduler thread, so stored rollups lag live traffic by up to one flush
+ * interval plus the time of a write; deltas not yet flushed are lost if the node stops abruptly.
+ *
+ * Exported as calculation.rollup.windows, calculation.rollup.flush and calculation.rollup.flush.failed.
+ */
+@Component
+public class CalculationRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculationRollups.class);
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String[] LABELS;
+    private static final int EXPRESSION_SLOT;
+
+    static {
+        CalculationOperation[] operations = CalculationOperation.values();
+        EXPRESSION_SLOT = operations.length;
+        LABELS = new String[operations.length + 1];
+        for (CalculationOperation operation : operations) {
+            LABELS[operation.ordinal()] = operation.getLabel();
+        }
+        LABELS[EXPRESSION_SLOT] = "expression";
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration defaultRange;
+    private final Duration maxRange;
+
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    // Window of the current minute, so recording normally skips the map lookup
+    private volatile Window current;
+    // Serializes the scheduled flush and the shutdown flush without pinning virtual threads
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    public CalculationRollups(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.calculation.rollup.enabled:true}") boolean enabled,
+            @Value("${app.calculation.rollup.default-range:1h}") Duration defaultRange,
+            @Value("${app.calculation.rollup.max-range:24h}") Duration maxRange) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.defaultRange = defaultRange;
+        this.maxRange = maxRange;
+
+        Gauge.builder("calculation.rollup.windows", windows, ConcurrentHashMap::size)
+                .description("Minutes of calculation statistics held in memory")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("calculation.rollup.flush")
+                .description("Time spent upserting calculation rollups")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("calculation.rollup.flush.failed")
+                .description("Rollup upserts that failed and were kept for the next flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count a binary calculation
+     */
+    public void record(CalculationOperation operation, double number1, double number2, double result) {
+        if (!enabled || Double.isNaN(result)) {
+            return;
+        }
+        Bucket bucket = window().buckets[operation.ordinal()];
+        bucket.number1Sum.add(number1);
+        bucket.number2Sum.add(number2);
+        bucket.add(result);
+    }
+
+    /**
+     * Count an expression evaluation
+     */
+    public void recordExpression(double result) {
+        if (!enabled || Double.isNaN(result)) {
+            return;
+        }
+        window().buckets[EXPRESSION_SLOT].add(result);
+    }
+
+    /**
+     * Stored rollups within [from, to), oldest first
+     * @param from start of the range, or null for default-range before to
+     * @param to end of the range, or null for now
+     * @param operation operation label or verb, "expression", or null for all operations
+     * @throws IllegalArgumentException if the range is empty or longer than max-range, or the operation is unknown
+     */
+    public CalculationStatsDto stats(LocalDateTime from, LocalDateTime to, String operation) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(defaultRange);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(start, end).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Range must not exceed " + maxRange.toHours() + " hours");
+        }
+
+        Criteria criteria = Criteria.where("minute").gte(start).lt(end);
+        if (operation != null && !operation.isEmpty()) {
+            criteria = criteria.and("operation").is(label(operation));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "minute", "operation"));
+        query.fields().exclude("_id");
+
+        List<CalculationStatsDto.Entry> rollups = new ArrayList<>();
+        for (CalculationRollup rollup : mongoTemplate.find(query, CalculationRollup.class)) {
+            rollups.add(new CalculationStatsDto.Entry(rollup));
+        }
+        return new CalculationStatsDto(start, end, rollups);
+    }
+
+    /**
+     * Upsert the deltas accumulated since the last flush
+     */
+    @Scheduled(fixedDelayString = "${app.calculation.rollup.flush-interval-ms:10000}", scheduler = "calculationRollupScheduler")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushWindows();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushWindows() {
+        if (windows.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long currentMinute = System.currentTimeMillis() / MINUTE_MILLIS;
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CalculationRollup.class);
+        List<Delta> deltas = new ArrayList<>();
+        List<Window> expired = new ArrayList<>();
+
+        for (Window window : windows.values()) {
+            LocalDateTime minute = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(window.minute * MINUTE_MILLIS), ZoneId.systemDefault());
+            for (int slot = 0; slot < window.buckets.length; slot++) {
+                Delta delta = window.buckets[slot].takeDelta();
+                if (delta == null) {
+                    continue;
+                }
+                operations.upsert(
+                        new Query(Criteria.where("_id").is(CalculationRollup.idOf(minute, LABELS[slot]))),
+                        new Update()
+                                .setOnInsert("minute", minute)
+                                .setOnInsert("operation", LABELS[slot])
+                                .inc("count", delta.count)
+                                .inc("number1Sum", delta.number1Sum)
+                                .inc("number2Sum", delta.number2Sum)
+                                .inc("resultSum", delta.resultSum)
+                                .min("resultMin", delta.resultMin)
+                                .max("resultMax", delta.resultMax));
+                deltas.add(delta);
+            }
+            // Late writers may still hold the previous minute's window; keep it one more minute
+            if (window.minute < currentMinute - 1) {
+                expired.add(window);
+            }
+        }
+
+        try {
+            if (!deltas.isEmpty()) {
+                operations.execute();
+            }
+            expired.forEach(window -> windows.remove(window.minute, window));
+        } catch (BulkOperationException e) {
+            // Unordered: only the reported upserts failed
+            for (BulkWriteError error : e.getErrors()) {
+                deltas.get(error.getIndex()).restore();
+            }
+            flushFailures.increment(e.getErrors().size());
+            logger.warn("{} of {} calculation rollups could not be written: {}",
+                    e.getErrors().size(), deltas.size(), e.getMessage());
+        } catch (Exception e) {
+            deltas.forEach(Delta::restore);
+            flushFailures.increment(deltas.size());
+            logger.warn("Calculation rollup flush failed, keeping {} rollups for the next flush: {}",
+                    deltas.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    private Window window() {
+        long minute = System.currentTimeMillis() / MINUTE_MILLIS;
+        Window window = current;
+        if (window == null || window.minute != minute) {
+            window = windows.computeIfAbsent(minute, Window::new);
+            current = window;
+        }
+        return window;
+    }
+
+    private static String label(String operation) {
+        if (LABELS[EXPRESSION_SLOT].equalsIgnoreCase(operation.trim())) {
+            return LABELS[EXPRESSION_SLOT];
+        }
+        CalculationOperation resolved = CalculationOperation.fromName(operation);
+        if (resolved == null) {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+        return resolved.getLabel();
+    }
+
+    private static final class Window {
+
+        final long minute;
+        final Bucket[] buckets = new Bucket[LABELS.length];
+
+        Window(long minute) {
+            this.minute = minute;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        final LongAdder count = new LongAdder();
+        final DoubleAdder number1Sum = new DoubleAdder();
+        final DoubleAdder number2Sum = new DoubleAdder();
+        final DoubleAdder resultSum = new DoubleAdder();
+        final DoubleAccumulator resultMin = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        final DoubleAccumulator resultMax = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+        void add(double result) {
+            resultSum.add(result);
+            resultMin.accumulate(result);
+            resultMax.accumulate(result);
+            count.increment();
+        }
+
+        /**
+         * Take everything added since the last call; concurrent additions land in this delta or the next
+         * @return null if nothing was added
+         */
+        Delta takeDelta() {
+            long taken = count.sumThenReset();
+            if (taken == 0) {
+                return null;
+            }
+            // Extremes are never reset: $min/$max of the same value again is a no-op
+            return new Delta(this, taken, number1Sum.sumThenReset(), number2Sum.sumThenReset(),
+                    resultSum.sumThenReset(), resultMin.get(), resultMax.get());
+        }
+    }
+
+    private record Delta(Bucket bucket, long count, double number1Sum, double number2Sum, double resultSum,
+                         double resultMin, double resultMax) {
+
+        void restore() {
+            bucket.count.add(count);
+            bucket.number1Sum.add(number1Sum);
+            bucket.number2Sum.add(number2Sum);
+            bucket.resultSum.add(resultSum);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.springdemo.service.calculation;
+
+import com.example.springdemo.service.CalculationService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Evaluates a newline-delimited JSON stream of calculations and writes NDJSON results.
+ *
+ * Input records look like {"operation": "add", "number1": 10, "number2": 5}; each produces one
+ * output line, either {"index": 0, "operation": "addition", "number1": 10.0, "number2": 5.0, "result": 15.0}
+ * or {"index": 0, "error": "..."}.
+ *
+ * Records are parsed and written one at a time with Jackson's streaming API, so memory use is
+ * independent of the input size. Writes block once the container's output buffer is full, which
+ * stops further reads until a slow client catches up.
+ */
+@Component
+public class NdjsonCalculationStreamer {
+
+    private final CalculationService calculationService;
+    private final JsonFactory jsonFactory;
+    private final int flushInterval;
+
+    public NdjsonCalculationStreamer(CalculationService calculationService, ObjectMapper objectMapper,
+                                     @Value("${app.calculation.stream.flush-interval:1024}") int flushInterval) {
+        if (flushInterval < 1) {
+            throw new IllegalArgumentException("app.calculation.stream.flush-interval must be at least 1");
+        }
+        this.calculationService = calculationService;
+        this.jsonFactory = objectMapper.getFactory();
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Process the whole input stream
+     * @return number of records processed
+     */
+    public long process(InputStream input, OutputStream output) throws IOException {
+        long index = 0;
+
+        try (JsonParser parser = jsonFactory.createParser(input);
+             JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            while (true) {
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                    if (token == null) {
+                        break;
+                    }
+                    if (token == JsonToken.START_OBJECT) {
+                        processRecord(parser, generator, index);
+                    } else {
+                        parser.skipChildren();
+                        writeError(generator, index, "Expected a JSON object");
+                    }
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON or input beyond the parser's limits (e.g. an oversized number);
+                    // either way the stream cannot be resynchronised
+                    writeError(generator, index, "Invalid JSON: " + e.getOriginalMessage());
+                    index++;
+                    break;
+                }
+
+                index++;
+                if (index % flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+
+            generator.flush();
+        }
+
+        return index;
+    }
+
+    private void processRecord(JsonParser parser, JsonGenerator generator, long index) throws IOException {
+        CalculationOperation operation = null;
+        String operationName = null;
+        double number1 = 0;
+        double number2 = 0;
+        boolean hasNumber1 = false;
+        boolean hasNumber2 = false;
+        String error;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "operation":
+                    if (value == JsonToken.VALUE_STRING) {
+                        operationName = parser.getText();
+                        operation = CalculationOperation.fromName(operationName);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "number1":
+                    if (value.isNumeric()) {
+                        number1 = parser.getDoubleValue();
+                        hasNumber1 = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "number2":
+                    if (value.isNumeric()) {
+                        number2 = parser.getDoubleValue();
+                        hasNumber2 = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if (operation == null) {
+            error = "Unsupported operation: " + operationName;
+        } else if (!hasNumber1) {
+            error = "First number is required";
+        } else if (!hasNumber2) {
+            error = "Second number is required";
+        } else {
+            error = CalculationEngine.validate(operation, number1, number2);
+        }
+
+        if (error != null) {
+            writeError(generator, index, error);
+            return;
+        }
+
+        double result = calculationService.compute(operation, number1, number2);
+
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeStringField("operation", operation.getLabel());
+        generator.writeNumberField("number1", number1);
+        generator.writeNumberField("number2", number2);
+        generator.writeNumberField("result", result);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeError(JsonGenerator generator, long index, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.springdemo.service.email;
+
+import com.example.springdemo.model.email.EmailMessage;
+import com.example.springdemo.model.email.EmailOutboxMessage;
+import com.example.springdemo.repository.EmailOutboxRepository;
+import com.example.springdemo.repository.ReactiveEmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Entry point for sending transactional email: messages are stored in the email_outbox collection
+ * and delivered later by {@link EmailOutboxWorker}, so request threads never wait on the provider
+ * and a provider outage delays emails instead of losing them.
+ *
+ * The reactive repository behind {@link #enqueueAsync} only exists with the reactive profile.
+ */
+@Component
+public class EmailOutbox {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final ObjectProvider<ReactiveEmailOutboxRepository> reactiveOutboxRepository;
+    private final Counter enqueued;
+
+    public EmailOutbox(EmailOutboxRepository outboxRepository,
+                       ObjectProvider<ReactiveEmailOutboxRepository> reactiveOutboxRepository,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.reactiveOutboxRepository = reactiveOutboxRepository;
+        this.enqueued = Counter.builder("email.outbox.enqueued")
+                .description("Emails written to the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store a message for delivery
+     */
+    public void enqueue(EmailMessage message) {
+        outboxRepository.insert(new EmailOutboxMessage(message));
+        enqueued.increment();
+    }
+
+    /**
+     * Store a message for delivery without blocking the caller
+     */
+    public Mono<Void> enqueueAsync(EmailMessage message) {
+        return reactiveOutboxRepository.getObject().insert(new EmailOutboxMessage(message))
+                .doOnNext(saved -> enqueued.increment())
+                .then();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.springdemo.service.email;
+
+import com.example.springdemo.model.email.DeliveryResult;
+import com.example.springdemo.model.email.EmailMessage;
+import com.example.springdemo.model.email.EmailOutboxMessage;
+import com.example.springdemo.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox in the background, on the emailOutboxScheduler thread.
+ *
+ * Each poll claims up to batch-size due messages by stamping them with a claim id and pushing
+ * nextAttemptAt forward by the lease, hands them to the {@link EmailService} as one batch, deletes
+ * the ones that were sent and reschedules the rest with exponential backoff and jitter. No send is
+ * started after half the lease, and results are kept per message as they arrive, so a batch that runs
+ * long never has its already-sent messages retried. A message the provider rejects as invalid, or
+ * that fails max-attempts times, is kept as DEAD for inspection. Claims are conditional on the
+ * message still being due, so several nodes can poll the same collection; a node that dies
+ * mid-batch only delays its messages until the lease runs out.
+ *
+ * Exported as email.outbox.lag (seconds the oldest due message has waited since it was enqueued),
+ * email.outbox.batch.size and email.outbox.messages{result=sent|retried|dead}.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final String REJECTED_ERROR = "Rejected by email provider as invalid";
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final DistributionSummary batchSizes;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+
+    public EmailOutboxWorker(
+            MongoTemplate mongoTemplate,
+            EmailService emailService,
+            MeterRegistry meterRegistry,
+            @Value("${app.email.outbox.batch-size:50}") int batchSize,
+            @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.email.outbox.initial-backoff:5s}") Duration initialBackoff,
+            @Value("${app.email.outbox.max-backoff:15m}") Duration maxBackoff,
+            @Value("${app.email.outbox.lease:2m}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        Gauge.builder("email.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Seconds the oldest due outbox message has waited since it was enqueued")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("email.outbox.batch.size")
+                .description("Messages handed to the email provider per batch")
+                .register(meterRegistry);
+        this.sent = messages(meterRegistry, "sent");
+        this.retried = messages(meterRegistry, "retried");
+        this.dead = messages(meterRegistry, "dead");
+    }
+
+    /**
+     * Send due messages, batch after batch, until the outbox has no full batch left
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:1000}", scheduler = "emailOutboxScheduler")
+    public void drain() {
+        try {
+            int claimed;
+            do {
+                claimed = drainBatch();
+            } while (claimed == batchSize);
+        } catch (Exception e) {
+            logger.warn("Email outbox poll failed: {}", e.getMessage());
+        }
+    }
+
+    private int drainBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria due = Criteria.where("status").is(EmailOutboxMessage.Status.PENDING).and("nextAttemptAt").lte(now);
+
+        Query dueQuery = new Query(due).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt")).limit(batchSize);
+        dueQuery.fields().include("_id", "createdAt");
+        List<EmailOutboxMessage> candidates = mongoTemplate.find(dueQuery, EmailOutboxMessage.class);
+        lagSeconds.set(candidates.stream()
+                .map(EmailOutboxMessage::getCreatedAt)
+                .filter(createdAt -> createdAt != null)
+                .min(LocalDateTime::compareTo)
+                .map(oldest -> Math.max(0, Duration.between(oldest, now).toSeconds()))
+                .orElse(0L));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        // Claim only what is still due, so a message is never claimed by two pollers at once
+        String claimId = UUID.randomUUID().toString();
+        List<String> ids = candidates.stream().map(EmailOutboxMessage::getId).toList();
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids).andOperator(due)),
+                new Update().set("claimId", claimId).set("nextAttemptAt", now.plus(lease)),
+                EmailOutboxMessage.class);
+        List<EmailOutboxMessage> claimed = mongoTemplate.find(
+                new Query(Criteria.where("claimId").is(claimId)), EmailOutboxMessage.class);
+        if (claimed.isEmpty()) {
+            return candidates.size();
+        }
+
+        batchSizes.record(claimed.size());
+        List<EmailMessage> messages = claimed.stream().map(EmailOutboxMessage::getMessage).toList();
+        List<DeliveryResult> delivered = Collections.synchronizedList(new ArrayList<>(claimed.size()));
+        String error = "Not accepted by email provider";
+        try {
+            // Sends stop at half the lease, leaving the rest of it for the last requests to finish
+            emailService.sendBatch(messages, Instant.now().plus(lease.dividedBy(2)))
+                    .doOnNext(delivered::add)
+                    .blockLast(lease);
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        // Results arrive in message order; messages without one were not confirmed sent
+        List<DeliveryResult> results = new ArrayList<>(delivered);
+        while (results.size() < claimed.size()) {
+            results.add(DeliveryResult.RETRY);
+        }
+
+        complete(claimed, results, error, claimId);
+        return candidates.size();
+    }
+
+    private void complete(List<EmailOutboxMessage> claimed, List<DeliveryResult> results, String error, String claimId) {
+        List<String> sentIds = new ArrayList<>();
+        BulkOperations failures = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailOutboxMessage.class);
+        int failed = 0;
+
+        for (int i = 0; i < claimed.size(); i++) {
+            EmailOutboxMessage message = claimed.get(i);
+            DeliveryResult result = results.get(i);
+            if (result == DeliveryResult.SENT) {
+                sentIds.add(message.getId());
+                continue;
+            }
+
+            int attempts = message.getAttempts() + 1;
+            Update update = new Update()
+                    .set("attempts", attempts)
+                    .set("lastError", result == DeliveryResult.REJECTED ? REJECTED_ERROR : truncate(error))
+                    .unset("claimId");
+            if (result == DeliveryResult.REJECTED) {
+                // Retrying a message the provider refuses as invalid cannot succeed
+                update.set("status", EmailOutboxMessage.Status.DEAD);
+                dead.increment();
+                logger.error("Giving up on {} email to {}: {}",
+                        message.getMessage().getType(), message.getMessage().getToEmail(), REJECTED_ERROR);
+            } else if (attempts >= maxAttempts) {
+                update.set("status", EmailOutboxMessage.Status.DEAD);
+                dead.increment();
+                logger.error("Giving up on {} email to {} after {} attempts: {}",
+                        message.getMessage().getType(), message.getMessage().getToEmail(), attempts, error);
+            } else {
+                update.set("nextAttemptAt", LocalDateTime.now().plus(backoff(attempts)));
+                retried.increment();
+            }
+            failures.updateOne(new Query(Criteria.where("_id").is(message.getId()).and("claimId").is(claimId)), update);
+            failed++;
+        }
+
+        if (!sentIds.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(sentIds).and("claimId").is(claimId)), EmailOutboxMessage.class);
+            sent.increment(sentIds.size());
+        }
+        if (failed > 0) {
+            failures.execute();
+            logger.warn("{} of {} outbox emails failed: {}", failed, claimed.size(), error);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at max-backoff, with the upper half jittered so retries of a
+     * failed batch spread out instead of hitting the provider together
+     */
+    private Duration backoff(int attempts) {
+        long initialMillis = initialBackoff.toMillis();
+        long maxMillis = maxBackoff.toMillis();
+        int shift = Math.min(attempts - 1, 30);
+        long delay = initialMillis > (maxMillis >> shift) ? maxMillis : Math.min(maxMillis, initialMillis << shift);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Counter messages(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("email.outbox.messages")
+                .description("Outbox emails by delivery outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.springdemo.service.email;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An email template compiled once into UTF-8 encoded static segments separated by placeholders.
+ *
+ * Placeholders are written as {{name}} and must be one of the parameters declared at compile time;
+ * rendering takes the values in the same order. Rendering copies the pre-encoded segments and the
+ * encoded (and, for HTML templates, escaped) values into a per-thread buffer, so nothing is parsed
+ * and only the resulting String is allocated.
+ */
+final class EmailTemplate {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    // Buffers grown past this by an unusually large email are not kept for the next render
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    private final byte[][] segments;
+    private final int[] slots;
+    private final boolean escapeHtml;
+    private final int parameterCount;
+
+    private EmailTemplate(byte[][] segments, int[] slots, boolean escapeHtml, int parameterCount) {
+        this.segments = segments;
+        this.slots = slots;
+        this.escapeHtml = escapeHtml;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Compile a template
+     * @param source template text with {{name}} placeholders
+     * @param escapeHtml whether values are HTML-escaped when rendered
+     * @param parameters placeholder names, in the order render takes their values
+     */
+    static EmailTemplate compile(String source, boolean escapeHtml, String... parameters) {
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            int slot = Arrays.asList(parameters).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder: " + name);
+            }
+            segments.add(source.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(slot);
+            position = close + 2;
+        }
+        segments.add(source.substring(position).getBytes(StandardCharsets.UTF_8));
+
+        return new EmailTemplate(
+                segments.toArray(new byte[0][]),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                escapeHtml,
+                parameters.length);
+    }
+
+    /**
+     * Render the template; null values render as empty
+     * @param values one value per declared parameter, in declaration order
+     */
+    String render(String... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Expected " + parameterCount + " values but got " + values.length);
+        }
+
+        byte[] buffer = BUFFER.get();
+        int length = 0;
+        for (int i = 0; i < slots.length; i++) {
+            buffer = ensureCapacity(buffer, length, segments[i].length);
+            System.arraycopy(segments[i], 0, buffer, length, segments[i].length);
+            length += segments[i].length;
+
+            String value = values[slots[i]];
+            if (value != null) {
+                // Worst case per char: a 6 byte entity (&quot;) or 3 UTF-8 bytes
+                buffer = ensureCapacity(buffer, length, value.length() * 6);
+                length = writeValue(value, buffer, length);
+            }
+        }
+        byte[] last = segments[slots.length];
+        buffer = ensureCapacity(buffer, length, last.length);
+        System.arraycopy(last, 0, buffer, length, last.length);
+        length += last.length;
+
+        String rendered = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        BUFFER.set(buffer.length > MAX_RETAINED_BUFFER_SIZE ? new byte[INITIAL_BUFFER_SIZE] : buffer);
+        return rendered;
+    }
+
+    private int writeValue(String value, byte[] buffer, int length) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (escapeHtml) {
+                String entity = switch (c) {
+                    case '&' -> "&amp;";
+                    case '<' -> "&lt;";
+                    case '>' -> "&gt;";
+                    case '"' -> "&quot;";
+                    case '\'' -> "&#39;";
+                    default -> null;
+                };
+                if (entity != null) {
+                    for (int j = 0; j < entity.length(); j++) {
+                        buffer[length++] = (byte) entity.charAt(j);
+                    }
+                    continue;
+                }
+            }
+
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, replaced like String.getBytes does
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return length;
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int length, int extra) {
+        int required = length + extra;
+        if (required <= buffer.length) {
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+}
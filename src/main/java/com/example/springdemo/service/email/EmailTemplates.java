@@ -0,0 +1,57 @@
+package com.example.springdemo.service.email;
+
+import com.example.springdemo.model.email.EmailMessage;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The transactional email templates under resources/email, compiled once at startup and shared
+ * by every {@link com.example.springdemo.service.EmailService} implementation
+ */
+@Component
+public class EmailTemplates {
+
+    private static final String WELCOME_SUBJECT = "Welcome to Spring Demo!";
+    private static final String PASSWORD_RESET_SUBJECT = "Password Reset Request";
+
+    private final EmailTemplate welcomeHtml;
+    private final EmailTemplate welcomeText;
+    private final EmailTemplate passwordResetHtml;
+    private final EmailTemplate passwordResetText;
+
+    public EmailTemplates() {
+        this.welcomeHtml = EmailTemplate.compile(load("email/welcome.html"), true, "username");
+        this.welcomeText = EmailTemplate.compile(load("email/welcome.txt"), false, "username");
+        this.passwordResetHtml = EmailTemplate.compile(load("email/password-reset.html"), true, "username", "resetUrl");
+        this.passwordResetText = EmailTemplate.compile(load("email/password-reset.txt"), false, "username", "resetUrl");
+    }
+
+    public RenderedEmail welcome(String username) {
+        return new RenderedEmail(WELCOME_SUBJECT, welcomeHtml.render(username), welcomeText.render(username));
+    }
+
+    public RenderedEmail passwordReset(String username, String resetUrl) {
+        return new RenderedEmail(
+                PASSWORD_RESET_SUBJECT,
+                passwordResetHtml.render(username, resetUrl),
+                passwordResetText.render(username, resetUrl));
+    }
+
+    public RenderedEmail render(EmailMessage message) {
+        return switch (message.getType()) {
+            case WELCOME -> welcome(message.getUsername());
+            case PASSWORD_RESET -> passwordReset(message.getUsername(), message.getResetUrl());
+        };
+    }
+
+    private static String load(String path) {
+        try {
+            return new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load email template " + path, e);
+        }
+    }
+}
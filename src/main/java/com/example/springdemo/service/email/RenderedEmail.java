@@ -0,0 +1,7 @@
+package com.example.springdemo.service.email;
+
+/**
+ * Subject and bodies of an email ready to hand to a provider
+ */
+public record RenderedEmail(String subject, String html, String text) {
+}
@@ -0,0 +1,121 @@
+package com.example.springdemo.service.expression;
+
+import com.example.springdemo.constant.ApiConstants;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Translates an {@link ExpressionPlan} into a hidden class implementing {@link ExpressionFormula}.
+ *
+ * The postfix instructions of the plan map one-to-one onto JVM stack instructions, so the generated
+ * evaluate method is straight-line code the JIT can compile and inline like hand-written arithmetic.
+ * Hidden classes are unloaded once the formula is no longer referenced (e.g. evicted from the cache).
+ */
+final class BytecodeFormulaCompiler {
+
+    private static final String CLASS_NAME = "com/example/springdemo/service/expression/GeneratedFormula";
+    private static final String FORMULA_INTERFACE = Type.getInternalName(ExpressionFormula.class);
+    private static final String RUNTIME_CLASS = Type.getInternalName(BytecodeFormulaCompiler.class);
+
+    private BytecodeFormulaCompiler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Generate, define and instantiate the formula class for a plan
+     * @throws IllegalStateException if the class cannot be generated (e.g. method too large)
+     */
+    static ExpressionFormula compile(ExpressionPlan plan) {
+        byte[] bytes = generate(plan);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            Object formula = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+            return (ExpressionFormula) formula;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not define formula class for '" + plan.getExpression() + "'", e);
+        }
+    }
+
+    /**
+     * Division with the same zero check as the interpreter; invoked from generated code
+     */
+    static double divide(double dividend, double divisor) {
+        if (divisor == 0) {
+            throw new IllegalArgumentException(ApiConstants.DIVISION_BY_ZERO);
+        }
+        return dividend / divisor;
+    }
+
+    private static byte[] generate(ExpressionPlan plan) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null,
+                "java/lang/Object", new String[] {FORMULA_INTERFACE});
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "evaluate", "([D)D", null, null);
+        method.visitCode();
+
+        int[] code = plan.getCode();
+        double[] constants = plan.getConstants();
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case ExpressionPlan.PUSH_CONSTANT:
+                    method.visitLdcInsn(constants[code[++pc]]);
+                    break;
+                case ExpressionPlan.LOAD_VARIABLE:
+                    method.visitVarInsn(Opcodes.ALOAD, 1);
+                    pushInt(method, code[++pc]);
+                    method.visitInsn(Opcodes.DALOAD);
+                    break;
+                case ExpressionPlan.NEGATE:
+                    method.visitInsn(Opcodes.DNEG);
+                    break;
+                case ExpressionPlan.ADD:
+                    method.visitInsn(Opcodes.DADD);
+                    break;
+                case ExpressionPlan.SUBTRACT:
+                    method.visitInsn(Opcodes.DSUB);
+                    break;
+                case ExpressionPlan.MULTIPLY:
+                    method.visitInsn(Opcodes.DMUL);
+                    break;
+                case ExpressionPlan.DIVIDE:
+                    method.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME_CLASS, "divide", "(DD)D", false);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+
+        method.visitInsn(Opcodes.DRETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor method, int value) {
+        if (value <= 5) {
+            method.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            method.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            method.visitLdcInsn(value);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.springdemo.service.expression;
+
+import com.example.springdemo.service.calculation.CalculationEngine;
+import com.example.springdemo.service.calculation.CalculationOperation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles an expression AST into an {@link ExpressionPlan}.
+ * Constant sub-expressions are folded at compile time.
+ */
+public final class ExpressionCompiler {
+
+    private final List<Integer> code = new ArrayList<>();
+    private final List<Double> constants = new ArrayList<>();
+    private final Map<String, Integer> variableSlots = new LinkedHashMap<>();
+    private int depth;
+    private int maxDepth;
+
+    private ExpressionCompiler() {}
+
+    /**
+     * Parse and compile an expression
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static ExpressionPlan compile(String expression) {
+        return compile(expression, ExpressionParser.parse(expression));
+    }
+
+    /**
+     * Compile an already parsed expression
+     */
+    public static ExpressionPlan compile(String expression, ExpressionNode root) {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        compiler.emit(fold(root));
+
+        int[] code = compiler.code.stream().mapToInt(Integer::intValue).toArray();
+        double[] constants = compiler.constants.stream().mapToDouble(Double::doubleValue).toArray();
+        String[] variableNames = compiler.variableSlots.keySet().toArray(new String[0]);
+        return new ExpressionPlan(expression, code, constants, variableNames, compiler.maxDepth);
+    }
+
+    /**
+     * Replace sub-trees without variables by their value.
+     * Division by zero is left in place so that it fails at evaluation time.
+     */
+    static ExpressionNode fold(ExpressionNode node) {
+        if (node instanceof ExpressionNode.Negation) {
+            ExpressionNode operand = fold(((ExpressionNode.Negation) node).getOperand());
+            if (operand instanceof ExpressionNode.Constant) {
+                return new ExpressionNode.Constant(-((ExpressionNode.Constant) operand).getValue());
+            }
+            return new ExpressionNode.Negation(operand);
+        }
+        if (node instanceof ExpressionNode.Binary) {
+            ExpressionNode.Binary binary = (ExpressionNode.Binary) node;
+            ExpressionNode left = fold(binary.getLeft());
+            ExpressionNode right = fold(binary.getRight());
+            if (left instanceof ExpressionNode.Constant && right instanceof ExpressionNode.Constant) {
+                double rightValue = ((ExpressionNode.Constant) right).getValue();
+                if (CalculationEngine.isDefined(binary.getOperation(), rightValue)) {
+                    double leftValue = ((ExpressionNode.Constant) left).getValue();
+                    return new ExpressionNode.Constant(CalculationEngine.apply(binary.getOperation(), leftValue, rightValue));
+                }
+            }
+            return new ExpressionNode.Binary(binary.getOperation(), left, right);
+        }
+        return node;
+    }
+
+    private void emit(ExpressionNode node) {
+        if (node instanceof ExpressionNode.Constant) {
+            code.add(ExpressionPlan.PUSH_CONSTANT);
+            code.add(constants.size());
+            constants.add(((ExpressionNode.Constant) node).getValue());
+            push();
+        } else if (node instanceof ExpressionNode.Variable) {
+            String name = ((ExpressionNode.Variable) node).getName();
+            code.add(ExpressionPlan.LOAD_VARIABLE);
+            code.add(variableSlots.computeIfAbsent(name, n -> variableSlots.size()));
+            push();
+        } else if (node instanceof ExpressionNode.Negation) {
+            emit(((ExpressionNode.Negation) node).getOperand());
+            code.add(ExpressionPlan.NEGATE);
+        } else if (node instanceof ExpressionNode.Binary) {
+            ExpressionNode.Binary binary = (ExpressionNode.Binary) node;
+            emit(binary.getLeft());
+            emit(binary.getRight());
+            code.add(opcode(binary.getOperation()));
+            depth--;
+        } else {
+            throw new IllegalStateException("Unknown expression node " + node);
+        }
+    }
+
+    private void push() {
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    private static int opcode(CalculationOperation operation) {
+        switch (operation) {
+            case ADDITION:
+                return ExpressionPlan.ADD;
+            case SUBTRACTION:
+                return ExpressionPlan.SUBTRACT;
+            case MULTIPLICATION:
+                return ExpressionPlan.MULTIPLY;
+            case DIVISION:
+                return ExpressionPlan.DIVIDE;
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.springdemo.service.expression;
+
+/**
+ * Executable form of an expression (interpreted plan or generated class)
+ */
+public interface ExpressionFormula {
+
+    /**
+     * Evaluate with variables supplied in slot order
+     * @throws IllegalArgumentException on division by zero
+     */
+    double evaluate(double[] variables);
+}
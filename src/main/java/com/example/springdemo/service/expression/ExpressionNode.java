@@ -0,0 +1,107 @@
+package com.example.springdemo.service.expression;
+
+import com.example.springdemo.service.calculation.CalculationOperation;
+
+/**
+ * Abstract syntax tree for arithmetic expressions produced by {@link ExpressionParser}
+ */
+public abstract class ExpressionNode {
+
+    private ExpressionNode() {}
+
+    /**
+     * Numeric literal
+     */
+    public static final class Constant extends ExpressionNode {
+
+        private final double value;
+
+        public Constant(double value) {
+            this.value = value;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    /**
+     * Named variable bound at evaluation time
+     */
+    public static final class Variable extends ExpressionNode {
+
+        private final String name;
+
+        public Variable(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Unary minus
+     */
+    public static final class Negation extends ExpressionNode {
+
+        private final ExpressionNode operand;
+
+        public Negation(ExpressionNode operand) {
+            this.operand = operand;
+        }
+
+        public ExpressionNode getOperand() {
+            return operand;
+        }
+
+        @Override
+        public String toString() {
+            return "(-" + operand + ")";
+        }
+    }
+
+    /**
+     * Binary arithmetic operation
+     */
+    public static final class Binary extends ExpressionNode {
+
+        private final CalculationOperation operation;
+        private final ExpressionNode left;
+        private final ExpressionNode right;
+
+        public Binary(CalculationOperation operation, ExpressionNode left, ExpressionNode right) {
+            this.operation = operation;
+            this.left = left;
+            this.right = right;
+        }
+
+        public CalculationOperation getOperation() {
+            return operation;
+        }
+
+        public ExpressionNode getLeft() {
+            return left;
+        }
+
+        public ExpressionNode getRight() {
+            return right;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operation.getLabel() + " " + right + ")";
+        }
+    }
+}
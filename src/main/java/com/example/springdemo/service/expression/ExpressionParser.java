@@ -0,0 +1,192 @@
+package com.example.springdemo.service.expression;
+
+import com.example.springdemo.service.calculation.CalculationOperation;
+
+/**
+ * Recursive-descent parser for arithmetic expressions.
+ *
+ * Grammar:
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := ('-' | '+') unary | primary
+ * primary    := number | identifier | '(' expression ')'
+ * </pre>
+ */
+public final class ExpressionParser {
+
+    public static final int MAX_LENGTH = 4096;
+    public static final int MAX_DEPTH = 128;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parse an expression into an AST
+     * @throws IllegalArgumentException if the expression is empty, too large or malformed
+     */
+    public static ExpressionNode parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Expression is required");
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Expression must not exceed " + MAX_LENGTH + " characters");
+        }
+
+        ExpressionParser parser = new ExpressionParser(expression);
+        ExpressionNode node = parser.parseExpression();
+        parser.skipWhitespace();
+        if (parser.position < parser.text.length()) {
+            throw parser.error("Unexpected character '" + parser.text.charAt(parser.position) + "'");
+        }
+        return node;
+    }
+
+    private ExpressionNode parseExpression() {
+        enter();
+        ExpressionNode node = parseTerm();
+        while (true) {
+            if (consume('+')) {
+                node = new ExpressionNode.Binary(CalculationOperation.ADDITION, node, parseTerm());
+            } else if (consume('-')) {
+                node = new ExpressionNode.Binary(CalculationOperation.SUBTRACTION, node, parseTerm());
+            } else {
+                depth--;
+                return node;
+            }
+        }
+    }
+
+    private ExpressionNode parseTerm() {
+        ExpressionNode node = parseUnary();
+        while (true) {
+            if (consume('*')) {
+                node = new ExpressionNode.Binary(CalculationOperation.MULTIPLICATION, node, parseUnary());
+            } else if (consume('/')) {
+                node = new ExpressionNode.Binary(CalculationOperation.DIVISION, node, parseUnary());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private ExpressionNode parseUnary() {
+        if (consume('-')) {
+            enter();
+            ExpressionNode operand = parseUnary();
+            depth--;
+            return new ExpressionNode.Negation(operand);
+        }
+        if (consume('+')) {
+            enter();
+            ExpressionNode operand = parseUnary();
+            depth--;
+            return operand;
+        }
+        return parsePrimary();
+    }
+
+    private ExpressionNode parsePrimary() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Unexpected end of expression");
+        }
+
+        char c = text.charAt(position);
+        if (c == '(') {
+            position++;
+            ExpressionNode node = parseExpression();
+            if (!consume(')')) {
+                throw error("Expected ')'");
+            }
+            return node;
+        }
+        if (isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (isIdentifierStart(c)) {
+            int start = position;
+            while (position < text.length() && isIdentifierPart(text.charAt(position))) {
+                position++;
+            }
+            return new ExpressionNode.Variable(text.substring(start, position));
+        }
+        throw error("Unexpected character '" + c + "'");
+    }
+
+    private ExpressionNode parseNumber() {
+        int start = position;
+        while (position < text.length() && isDigit(text.charAt(position))) {
+            position++;
+        }
+        if (position < text.length() && text.charAt(position) == '.') {
+            position++;
+            while (position < text.length() && isDigit(text.charAt(position))) {
+                position++;
+            }
+        }
+        if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            int exponentStart = position;
+            position++;
+            if (position < text.length() && (text.charAt(position) == '+' || text.charAt(position) == '-')) {
+                position++;
+            }
+            if (position >= text.length() || !isDigit(text.charAt(position))) {
+                position = exponentStart;
+                throw error("Malformed exponent");
+            }
+            while (position < text.length() && isDigit(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        String literal = text.substring(start, position);
+        if (literal.equals(".")) {
+            position = start;
+            throw error("Malformed number");
+        }
+        return new ExpressionNode.Constant(Double.parseDouble(literal));
+    }
+
+    private boolean consume(char expected) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Expression is nested too deeply");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c);
+    }
+}
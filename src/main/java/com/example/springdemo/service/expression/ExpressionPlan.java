@@ -0,0 +1,124 @@
+package com.example.springdemo.service.expression;
+
+import com.example.springdemo.constant.ApiConstants;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled, immutable evaluation plan for an expression.
+ * The AST is flattened into postfix instructions with variables resolved to slots, so evaluation
+ * is a single loop over an int array with a primitive operand stack. Plans are thread-safe and
+ * meant to be cached and reused with different variable bindings.
+ */
+public final class ExpressionPlan implements ExpressionFormula {
+
+    static final int PUSH_CONSTANT = 0;
+    static final int LOAD_VARIABLE = 1;
+    static final int NEGATE = 2;
+    static final int ADD = 3;
+    static final int SUBTRACT = 4;
+    static final int MULTIPLY = 5;
+    static final int DIVIDE = 6;
+
+    private final String expression;
+    private final int[] code;
+    private final double[] constants;
+    private final String[] variableNames;
+    private final int maxStackDepth;
+
+    ExpressionPlan(String expression, int[] code, double[] constants, String[] variableNames, int maxStackDepth) {
+        this.expression = expression;
+        this.code = code;
+        this.constants = constants;
+        this.variableNames = variableNames;
+        this.maxStackDepth = maxStackDepth;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Variable names in slot order
+     */
+    public List<String> getVariableNames() {
+        return List.of(variableNames);
+    }
+
+    /**
+     * Resolve named bindings into the slot array expected by {@link #evaluate(double[])}
+     * @throws IllegalArgumentException if a variable is not bound
+     */
+    public double[] bind(Map<String, Double> variables) {
+        double[] values = new double[variableNames.length];
+        for (int i = 0; i < variableNames.length; i++) {
+            Double value = variables != null ? variables.get(variableNames[i]) : null;
+            if (value == null) {
+                throw new IllegalArgumentException("Variable '" + variableNames[i] + "' is not bound");
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    int[] getCode() {
+        return code;
+    }
+
+    double[] getConstants() {
+        return constants;
+    }
+
+    @Override
+    public double evaluate(double[] variables) {
+        double[] stack = new double[maxStackDepth];
+        int top = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case PUSH_CONSTANT:
+                    stack[++top] = constants[code[++pc]];
+                    break;
+                case LOAD_VARIABLE:
+                    stack[++top] = variables[code[++pc]];
+                    break;
+                case NEGATE:
+                    stack[top] = -stack[top];
+                    break;
+                case ADD:
+                    stack[top - 1] = stack[top - 1] + stack[top];
+                    top--;
+                    break;
+                case SUBTRACT:
+                    stack[top - 1] = stack[top - 1] - stack[top];
+                    top--;
+                    break;
+                case MULTIPLY:
+                    stack[top - 1] = stack[top - 1] * stack[top];
+                    top--;
+                    break;
+                case DIVIDE:
+                    if (stack[top] == 0) {
+                        throw new IllegalArgumentException(ApiConstants.DIVISION_BY_ZERO);
+                    }
+                    stack[top - 1] = stack[top - 1] / stack[top];
+                    top--;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+        return stack[0];
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionPlan{" +
+                "expression='" + expression + '\'' +
+                ", variables=" + Arrays.toString(variableNames) +
+                ", instructions=" + code.length +
+                '}';
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.springdemo.service.expression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of compiled expressions keyed by expression text.
+ * Repeated evaluations of the same expression skip parsing and compilation entirely, and
+ * expressions evaluated more than app.calculation.expression.bytecode.compile-threshold times are
+ * promoted to generated bytecode. Tiering stats are exported as calculation.expression.* meters.
+ */
+@Component
+public class ExpressionPlanCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpressionPlanCache.class);
+    private static final String CACHE_NAME = "expressionPlans";
+
+    private final Cache<String, TieredExpression> cache;
+    private final long compileThreshold;
+    private final LongAdder interpretedEvaluations = new LongAdder();
+    private final LongAdder compiledEvaluations = new LongAdder();
+    private final Counter promotions;
+    private final Counter compilationFailures;
+    private final Timer compilationTimer;
+
+    public ExpressionPlanCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.calculation.expression.cache.maximum-size:1000}") long maximumSize,
+            @Value("${app.calculation.expression.cache.expire-after-access:1h}") Duration expireAfterAccess,
+            @Value("${app.calculation.expression.bytecode.enabled:true}") boolean bytecodeEnabled,
+            @Value("${app.calculation.expression.bytecode.compile-threshold:1000}") long compileThreshold) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        this.compileThreshold = bytecodeEnabled ? Math.max(1, compileThreshold) : -1;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        FunctionCounter.builder("calculation.expression.evaluations", interpretedEvaluations, LongAdder::sum)
+                .description("Expression evaluations by execution tier")
+                .tag("tier", "interpreted")
+                .register(meterRegistry);
+        FunctionCounter.builder("calculation.expression.evaluations", compiledEvaluations, LongAdder::sum)
+                .description("Expression evaluations by execution tier")
+                .tag("tier", "compiled")
+                .register(meterRegistry);
+        Gauge.builder("calculation.expression.compiled", cache, c -> c.asMap().values().stream().filter(TieredExpression::isCompiled).count())
+                .description("Cached expressions currently running as generated bytecode")
+                .register(meterRegistry);
+        this.promotions = Counter.builder("calculation.expression.promotions")
+                .description("Expressions promoted to generated bytecode")
+                .register(meterRegistry);
+        this.compilationFailures = Counter.builder("calculation.expression.compilation.failures")
+                .description("Expressions that could not be compiled to bytecode and stay interpreted")
+                .register(meterRegistry);
+        this.compilationTimer = Timer.builder("calculation.expression.compilation")
+                .description("Time spent generating bytecode for hot expressions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached expression, parsing and compiling it on first use
+     * @throws IllegalArgumentException if the expression is malformed (nothing is cached)
+     */
+    public TieredExpression getExpression(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Expression is required");
+        }
+        return cache.get(expression.strip(), text -> new TieredExpression(ExpressionCompiler.compile(text), this));
+    }
+
+    /**
+     * Remove all cached expressions
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    long getCompileThreshold() {
+        return compileThreshold;
+    }
+
+    void recordInterpretedEvaluation() {
+        interpretedEvaluations.increment();
+    }
+
+    void recordCompiledEvaluation() {
+        compiledEvaluations.increment();
+    }
+
+    /**
+     * Generate bytecode for a hot plan
+     * @return the generated formula, or null if generation failed
+     */
+    ExpressionFormula compileToBytecode(ExpressionPlan plan) {
+        long start = System.nanoTime();
+        try {
+            ExpressionFormula formula = BytecodeFormulaCompiler.compile(plan);
+            promotions.increment();
+            logger.debug("Promoted expression '{}' to bytecode", plan.getExpression());
+            return formula;
+        } catch (RuntimeException e) {
+            compilationFailures.increment();
+            logger.warn("Could not compile expression '{}' to bytecode, staying interpreted: {}", plan.getExpression(), e.getMessage());
+            return null;
+        } finally {
+            compilationTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
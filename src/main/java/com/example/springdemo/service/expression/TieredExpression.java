@@ -0,0 +1,75 @@
+package com.example.springdemo.service.expression;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached expression that starts out interpreted and is promoted to generated bytecode
+ * once it has been evaluated often enough.
+ */
+public final class TieredExpression {
+
+    private final ExpressionPlan plan;
+    private final ExpressionPlanCache owner;
+    private final AtomicLong interpretedInvocations = new AtomicLong();
+    private volatile ExpressionFormula compiled;
+    private volatile boolean compilationFailed;
+
+    TieredExpression(ExpressionPlan plan, ExpressionPlanCache owner) {
+        this.plan = plan;
+        this.owner = owner;
+    }
+
+    public ExpressionPlan getPlan() {
+        return plan;
+    }
+
+    public String getExpression() {
+        return plan.getExpression();
+    }
+
+    /**
+     * @see ExpressionPlan#bind(Map)
+     */
+    public double[] bind(Map<String, Double> variables) {
+        return plan.bind(variables);
+    }
+
+    /**
+     * Evaluate using the generated class if the expression has been promoted, otherwise interpret
+     * the plan and count the invocation towards promotion.
+     */
+    public double evaluate(double[] variables) {
+        ExpressionFormula formula = compiled;
+        if (formula != null) {
+            owner.recordCompiledEvaluation();
+            return formula.evaluate(variables);
+        }
+
+        if (!compilationFailed && interpretedInvocations.incrementAndGet() == owner.getCompileThreshold()) {
+            promote();
+        }
+        owner.recordInterpretedEvaluation();
+        return plan.evaluate(variables);
+    }
+
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+
+    public long getInterpretedInvocations() {
+        return interpretedInvocations.get();
+    }
+
+    /**
+     * Compile the plan to bytecode; only the thread that crosses the threshold gets here
+     */
+    private void promote() {
+        ExpressionFormula formula = owner.compileToBytecode(plan);
+        if (formula != null) {
+            compiled = formula;
+        } else {
+            compilationFailed = true;
+        }
+    }
+}
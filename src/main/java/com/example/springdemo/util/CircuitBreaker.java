@@ -0,0 +1,102 @@
+package com.example.springdemo.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free consecutive-failure circuit breaker.
+ *
+ * CLOSED lets every call through and opens after failureThreshold failures in a row. OPEN rejects
+ * calls until openDuration has passed, then HALF_OPEN lets exactly one probe call through: its
+ * success closes the circuit, its failure opens it again for another openDuration.
+ * Callers must report the outcome of every permitted call with {@link #onSuccess()} or {@link #onFailure()}.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return true if the call may proceed, false if it must be rejected without calling out
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt.get() < openNanos) {
+                return false;
+            }
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        // Half open: a single probe at a time
+        return state.get() == State.HALF_OPEN && probeInFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * Report a permitted call that succeeded
+     */
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() != State.CLOSED) {
+            state.set(State.CLOSED);
+            probeInFlight.set(false);
+        }
+    }
+
+    /**
+     * Report a permitted call that failed
+     */
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            open();
+            probeInFlight.set(false);
+        } else if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Remaining time before an open circuit lets a probe through, zero if it is not open
+     */
+    public Duration getRemainingOpenTime() {
+        if (state.get() != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt.get())));
+    }
+
+    private void open() {
+        openedAt.set(System.nanoTime());
+        state.set(State.OPEN);
+        consecutiveFailures.set(0);
+    }
+}
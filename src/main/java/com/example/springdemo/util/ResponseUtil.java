@@ -2,6 +2,7 @@ package com.example.springdemo.util;
 
 import com.example.springdemo.constant.ApiConstants;
 import com.example.springdemo.model.common.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -138,6 +139,16 @@ public final class ResponseUtil {
         return error(HttpStatus.CONFLICT, message, path);
     }
 
+    /**
+     * Build a too many requests response telling the client when to retry
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> tooManyRequests(String message, String path, long retryAfterSeconds) {
+        ApiResponse<T> response = ApiResponse.error(HttpStatus.TOO_MANY_REQUESTS.value(), message, path);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+
     /**
      * Build a service unavailable response
      */
@@ -145,6 +156,16 @@ public final class ResponseUtil {
         return error(HttpStatus.SERVICE_UNAVAILABLE, message, path);
     }
 
+    /**
+     * Build a service unavailable response telling the client when to retry
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> serviceUnavailable(String message, String path, long retryAfterSeconds) {
+        ApiResponse<T> response = ApiResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(), message, path);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+
     /**
      * Calculate processing time in milliseconds
      */